@@ -0,0 +1,471 @@
+package myapp;
+
+import java.util.Arrays;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.StrokeLineJoin;
+
+/**
+ * Every shape drawn on the sketch pad, kept so the canvas can be painted
+ * again. Shapes are stored in parallel arrays of primitives: a type, a
+ * colour and a line width each, their bounds, and their coordinates in one
+ * shared array of doubles. A change marks the bounds it touched as dirty,
+ * and {@link #paintDirty(GraphicsContext)} clears and repaints only that
+ * rectangle, drawing only the shapes whose bounds cross it.
+ * <p>
+ * Only a range of the shapes is shown. Clearing starts the range after the
+ * last shape, and {@link History} narrows it to undo; shapes after the
+ * range are kept for redo until a new shape replaces them.
+ * @author Melinda Robertson
+ * @version 17 October 2026
+ */
+public class Drawing {
+
+	/**
+	 * Defines a straight line: x1, y1, x2, y2.
+	 */
+	public static final int LINE = 1;
+
+	/**
+	 * Defines an oval: the x, y, width and height of its box.
+	 */
+	public static final int OVAL = 2;
+
+	/**
+	 * Defines a rectangle: x, y, width and height.
+	 */
+	public static final int RECT = 3;
+
+	/**
+	 * Defines a freehand line: x, y pairs.
+	 */
+	public static final int POLYLINE = 4;
+
+	/**
+	 * Defines a smooth curve through x, y pairs.
+	 */
+	public static final int CURVE = 5;
+
+	/**
+	 * The type of each shape.
+	 */
+	private int[] types = new int[64];
+
+	/**
+	 * The colour of each shape as ARGB.
+	 */
+	private int[] colors = new int[64];
+
+	/**
+	 * The line width of each shape.
+	 */
+	private double[] widths = new double[64];
+
+	/**
+	 * Where each shape's coordinates start.
+	 */
+	private int[] starts = new int[65];
+
+	/**
+	 * The bounds of each shape with its line width: min x, min y, max x,
+	 * max y.
+	 */
+	private double[] bounds = new double[4 * 64];
+
+	/**
+	 * The coordinates of every shape in order.
+	 */
+	private double[] coords = new double[1024];
+
+	/**
+	 * The number of shapes kept.
+	 */
+	private int size;
+
+	/**
+	 * The first shape shown.
+	 */
+	private int first;
+
+	/**
+	 * One after the last shape shown.
+	 */
+	private int end;
+
+	/**
+	 * The dirty rectangle: min x, min y, max x, max y. Empty when min x is
+	 * greater than max x.
+	 */
+	private final double[] dirty = {
+			Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+			Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+
+	/**
+	 * Retrieve the number of shapes kept, shown or not.
+	 * @return the number of shapes.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Retrieve the first shape shown.
+	 * @return the shape's index.
+	 */
+	public int getFirst() {
+		return first;
+	}
+
+	/**
+	 * Retrieve one after the last shape shown.
+	 * @return the index.
+	 */
+	public int getEnd() {
+		return end;
+	}
+
+	/**
+	 * Shows a range of the shapes. Nothing is marked dirty; the caller
+	 * paints the canvas to match.
+	 * @param first is the first shape to show.
+	 * @param end is one after the last shape to show.
+	 */
+	public void setShown(int first, int end) {
+		if (first < 0 || first > end || end > size) {
+			throw new IndexOutOfBoundsException("Range " + first + " to " + end
+					+ " of " + size + " shapes");
+		}
+		this.first = first;
+		this.end = end;
+	}
+
+	/**
+	 * Adds a line, oval or rectangle after the shown shapes, dropping any
+	 * kept for redo. It is not marked dirty; it is expected to be on the
+	 * canvas already.
+	 * @param type is {@link #LINE}, {@link #OVAL} or {@link #RECT}.
+	 * @param a is x1 for a line, otherwise x.
+	 * @param b is y1 for a line, otherwise y.
+	 * @param c is x2 for a line, otherwise the width.
+	 * @param d is y2 for a line, otherwise the height.
+	 * @param color is the colour.
+	 * @param width is the line width.
+	 */
+	public void addShape(int type, double a, double b, double c, double d,
+			Color color, double width) {
+		if (type != LINE && type != OVAL && type != RECT) {
+			throw new IllegalArgumentException("Unknown shape: " + type);
+		}
+		int at = begin(type, color, width, 4);
+		coords[at] = a;
+		coords[at + 1] = b;
+		coords[at + 2] = c;
+		coords[at + 3] = d;
+		if (type == LINE) {
+			setBounds(size, Math.min(a, c), Math.min(b, d), Math.max(a, c), Math.max(b, d), width);
+		} else {
+			setBounds(size, a, b, a + c, b + d, width);
+		}
+		end = ++size;
+	}
+
+	/**
+	 * Adds a freehand line, straight between its points or curved through
+	 * them. A line of one or two points is kept as a {@link #LINE}. It is
+	 * not marked dirty.
+	 * @param stroke holds the points.
+	 * @param color is the colour.
+	 * @param width is the line width.
+	 * @param smooth is true for a curve through the points.
+	 */
+	public void addPolyline(PencilStroke stroke, Color color, double width, boolean smooth) {
+		int n = stroke.size();
+		if (n == 0) return;
+		if (n <= 2) {
+			addShape(LINE, stroke.getX(0), stroke.getY(0),
+					stroke.getX(n - 1), stroke.getY(n - 1), color, width);
+			return;
+		}
+		int at = begin(smooth ? CURVE : POLYLINE, color, width, 2 * n);
+		double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+		double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+		for (int i = 0; i < n; i++) {
+			double x = stroke.getX(i);
+			double y = stroke.getY(i);
+			coords[at + 2 * i] = x;
+			coords[at + 2 * i + 1] = y;
+			minX = Math.min(minX, x);
+			minY = Math.min(minY, y);
+			maxX = Math.max(maxX, x);
+			maxY = Math.max(maxY, y);
+		}
+		//A Bezier segment stays inside its control points, which can lie
+		//outside the points themselves.
+		for (int k = 0; smooth && k < n - 1; k++) {
+			for (int axis = 0; axis < 2; axis++) {
+				double c1 = control1(at, n, k, axis);
+				double c2 = control2(at, n, k, axis);
+				if (axis == 0) {
+					minX = Math.min(minX, Math.min(c1, c2));
+					maxX = Math.max(maxX, Math.max(c1, c2));
+				} else {
+					minY = Math.min(minY, Math.min(c1, c2));
+					maxY = Math.max(maxY, Math.max(c1, c2));
+				}
+			}
+		}
+		setBounds(size, minX, minY, maxX, maxY, width);
+		end = ++size;
+	}
+
+	/**
+	 * Hides every shown shape and marks where they were dirty. The shapes
+	 * are kept so the clear can be undone.
+	 */
+	public void clear() {
+		for (int i = first; i < end; i++) {
+			invalidate(bounds[4 * i], bounds[4 * i + 1], bounds[4 * i + 2], bounds[4 * i + 3]);
+		}
+		first = end;
+	}
+
+	/**
+	 * Marks a shape's bounds to be painted again.
+	 * @param i is the shape's index.
+	 * @param pad widens the bounds on every side.
+	 */
+	public void invalidateShape(int i, double pad) {
+		invalidate(bounds[4 * i] - pad, bounds[4 * i + 1] - pad,
+				bounds[4 * i + 2] + pad, bounds[4 * i + 3] + pad);
+	}
+
+	/**
+	 * Marks a rectangle to be painted again.
+	 * @param minX is the left edge.
+	 * @param minY is the top edge.
+	 * @param maxX is the right edge.
+	 * @param maxY is the bottom edge.
+	 */
+	public void invalidate(double minX, double minY, double maxX, double maxY) {
+		dirty[0] = Math.min(dirty[0], minX);
+		dirty[1] = Math.min(dirty[1], minY);
+		dirty[2] = Math.max(dirty[2], maxX);
+		dirty[3] = Math.max(dirty[3], maxY);
+	}
+
+	/**
+	 * Repaints the dirty rectangle, if there is one, and marks it clean.
+	 * @param gc is the context of the canvas.
+	 */
+	public void paintDirty(GraphicsContext gc) {
+		if (dirty[0] > dirty[2]) return;
+		//Whole pixels, and one more around for antialiasing.
+		double x0 = Math.floor(dirty[0]) - 1;
+		double y0 = Math.floor(dirty[1]) - 1;
+		double x1 = Math.ceil(dirty[2]) + 1;
+		double y1 = Math.ceil(dirty[3]) + 1;
+		Arrays.fill(dirty, 0, 2, Double.POSITIVE_INFINITY);
+		Arrays.fill(dirty, 2, 4, Double.NEGATIVE_INFINITY);
+		paint(gc, x0, y0, x1, y1);
+	}
+
+	/**
+	 * Strokes one shape in its own colour and width.
+	 * @param gc is the context of the canvas.
+	 * @param i is the shape's index.
+	 */
+	public void paintShape(GraphicsContext gc, int i) {
+		gc.save();
+		gc.setStroke(toColor(colors[i]));
+		gc.setLineWidth(widths[i]);
+		draw(gc, i);
+		gc.restore();
+	}
+
+	/**
+	 * Clears a rectangle and paints the shown shapes that cross it, clipped
+	 * to it.
+	 * @param gc is the context of the canvas.
+	 * @param x0 is the left edge.
+	 * @param y0 is the top edge.
+	 * @param x1 is the right edge.
+	 * @param y1 is the bottom edge.
+	 */
+	public void paint(GraphicsContext gc, double x0, double y0, double x1, double y1) {
+		gc.save();
+		gc.clearRect(x0, y0, x1 - x0, y1 - y0);
+		gc.beginPath();
+		gc.rect(x0, y0, x1 - x0, y1 - y0);
+		gc.clip();
+		int argb = 0;
+		Color color = null;
+		for (int i = first; i < end; i++) {
+			int b = 4 * i;
+			if (bounds[b] > x1 || bounds[b + 2] < x0 || bounds[b + 1] > y1 || bounds[b + 3] < y0) {
+				continue;
+			}
+			if (color == null || colors[i] != argb) {
+				argb = colors[i];
+				color = toColor(argb);
+				gc.setStroke(color);
+			}
+			gc.setLineWidth(widths[i]);
+			draw(gc, i);
+		}
+		gc.restore();
+	}
+
+	/**
+	 * Strokes one shape.
+	 * @param gc is the context of the canvas.
+	 * @param i is the shape's index.
+	 */
+	private void draw(GraphicsContext gc, int i) {
+		int at = starts[i];
+		switch (types[i]) {
+		case LINE:
+			gc.strokeLine(coords[at], coords[at + 1], coords[at + 2], coords[at + 3]);
+			break;
+		case OVAL:
+			gc.strokeOval(coords[at], coords[at + 1], coords[at + 2], coords[at + 3]);
+			break;
+		case RECT:
+			gc.strokeRect(coords[at], coords[at + 1], coords[at + 2], coords[at + 3]);
+			break;
+		case POLYLINE:
+			//Round joins match the round-capped segments drawn live.
+			gc.setLineJoin(StrokeLineJoin.ROUND);
+			gc.beginPath();
+			gc.moveTo(coords[at], coords[at + 1]);
+			for (int k = at + 2; k < starts[i + 1]; k += 2) {
+				gc.lineTo(coords[k], coords[k + 1]);
+			}
+			gc.stroke();
+			gc.setLineJoin(StrokeLineJoin.MITER);
+			break;
+		case CURVE:
+			curve(gc, at, (starts[i + 1] - at) / 2);
+			break;
+		}
+	}
+
+	/**
+	 * Strokes a Catmull-Rom curve through points as cubic Bezier segments.
+	 * Each segment's control points follow the line between the points on
+	 * either side of it.
+	 * @param gc is the context of the canvas.
+	 * @param at is where the points start in the coordinates.
+	 * @param n is the number of points.
+	 */
+	private void curve(GraphicsContext gc, int at, int n) {
+		gc.beginPath();
+		gc.moveTo(coords[at], coords[at + 1]);
+		for (int k = 0; k < n - 1; k++) {
+			int p2 = at + 2 * (k + 1);
+			gc.bezierCurveTo(control1(at, n, k, 0), control1(at, n, k, 1),
+					control2(at, n, k, 0), control2(at, n, k, 1),
+					coords[p2], coords[p2 + 1]);
+		}
+		gc.stroke();
+	}
+
+	/**
+	 * Retrieve one coordinate of the first control point of a curve segment.
+	 * @param at is where the points start in the coordinates.
+	 * @param n is the number of points.
+	 * @param k is the segment, from point k to point k + 1.
+	 * @param axis is 0 for x and 1 for y.
+	 * @return the coordinate.
+	 */
+	private double control1(int at, int n, int k, int axis) {
+		int p0 = at + 2 * Math.max(k - 1, 0) + axis;
+		int p1 = at + 2 * k + axis;
+		int p2 = at + 2 * (k + 1) + axis;
+		return coords[p1] + (coords[p2] - coords[p0]) / 6;
+	}
+
+	/**
+	 * Retrieve one coordinate of the second control point of a curve segment.
+	 * @param at is where the points start in the coordinates.
+	 * @param n is the number of points.
+	 * @param k is the segment, from point k to point k + 1.
+	 * @param axis is 0 for x and 1 for y.
+	 * @return the coordinate.
+	 */
+	private double control2(int at, int n, int k, int axis) {
+		int p1 = at + 2 * k + axis;
+		int p2 = at + 2 * (k + 1) + axis;
+		int p3 = at + 2 * Math.min(k + 2, n - 1) + axis;
+		return coords[p2] - (coords[p3] - coords[p1]) / 6;
+	}
+
+	/**
+	 * Makes room for one more shape and records its type, colour and width.
+	 * @param type is the type.
+	 * @param color is the colour.
+	 * @param width is the line width.
+	 * @param length is the number of coordinates it needs.
+	 * @return where its coordinates start.
+	 */
+	private int begin(int type, Color color, double width, int length) {
+		size = end;
+		if (size == types.length) {
+			int cap = types.length * 2;
+			types = Arrays.copyOf(types, cap);
+			colors = Arrays.copyOf(colors, cap);
+			widths = Arrays.copyOf(widths, cap);
+			starts = Arrays.copyOf(starts, cap + 1);
+			bounds = Arrays.copyOf(bounds, 4 * cap);
+		}
+		int at = starts[size];
+		if (at + length > coords.length) {
+			coords = Arrays.copyOf(coords, Math.max(coords.length * 2, at + length));
+		}
+		types[size] = type;
+		colors[size] = toArgb(color);
+		widths[size] = width;
+		starts[size + 1] = at + length;
+		return at;
+	}
+
+	/**
+	 * Records the bounds of a shape, widened by half its line width.
+	 * @param i is the shape's index.
+	 * @param minX is the left edge of its geometry.
+	 * @param minY is the top edge of its geometry.
+	 * @param maxX is the right edge of its geometry.
+	 * @param maxY is the bottom edge of its geometry.
+	 * @param width is its line width.
+	 */
+	private void setBounds(int i, double minX, double minY, double maxX, double maxY,
+			double width) {
+		double pad = width / 2;
+		bounds[4 * i] = minX - pad;
+		bounds[4 * i + 1] = minY - pad;
+		bounds[4 * i + 2] = maxX + pad;
+		bounds[4 * i + 3] = maxY + pad;
+	}
+
+	/**
+	 * Unpacks a colour.
+	 * @param argb is the colour as ARGB.
+	 * @return the colour.
+	 */
+	private static Color toColor(int argb) {
+		return Color.rgb(argb >>> 16 & 0xFF, argb >>> 8 & 0xFF, argb & 0xFF,
+				(argb >>> 24) / 255.0);
+	}
+
+	/**
+	 * Packs a colour into an int.
+	 * @param c is the colour.
+	 * @return the colour as ARGB.
+	 */
+	private static int toArgb(Color c) {
+		return (int) Math.round(c.getOpacity() * 255) << 24
+				| (int) Math.round(c.getRed() * 255) << 16
+				| (int) Math.round(c.getGreen() * 255) << 8
+				| (int) Math.round(c.getBlue() * 255);
+	}
+}
@@ -23,6 +23,9 @@ import javafx.scene.text.Font;
 import javafx.scene.text.FontPosture;
 import javafx.scene.text.FontWeight;
 import javafx.stage.Stage;
+import metrics.Metrics;
+import metrics.MetricsOverlay;
+import metrics.Timer;
 
 /**
  * Utility to view all available fonts using a JavaFX application window. The
@@ -37,6 +40,11 @@ public class GetAllFonts extends Application {
 	 */
 	final private int TASIZE = 20;
 
+	/**
+	 * Times showing a newly selected font.
+	 */
+	private static final Timer SELECT_TIMER = Metrics.timer("fonts.select");
+
 	/**
 	 * The main container for the scene. Holds all components.
 	 */
@@ -195,9 +203,11 @@ public class GetAllFonts extends Application {
 					@Override
 					public void changed(ObservableValue<? extends String> obs,
 							String o, String n) {
+						Timer.Sample sample = SELECT_TIMER.start();
 						label.setText(n);
 						label.setFont(new Font(n, 38));
 						field.setFont(new Font(n, TASIZE));
+						sample.stop();
 					}
 				});
 
@@ -209,6 +219,7 @@ public class GetAllFonts extends Application {
 
 		stage.setScene(scene);
 		stage.show();
+		MetricsOverlay.install(stage, "GetAllFonts");
 	}
 
 	/**
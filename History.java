@@ -0,0 +1,167 @@
+package myapp;
+
+import java.util.Arrays;
+
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+/**
+ * Undo and redo for the sketch pad. The shapes themselves are the command
+ * log: they are already kept in a {@link Drawing}, so each step records
+ * only the range of shapes shown after it, two ints. Every
+ * {@link #CHECKPOINT_EVERY} steps the canvas is also kept as an image.
+ * Going to a step paints the image of the checkpoint before it and then
+ * only the shapes added since, so it never draws more than
+ * {@link #CHECKPOINT_EVERY} shapes. Only the last {@link #MAX_CHECKPOINTS}
+ * images are kept, which bounds the memory and how far back undo goes.
+ * @author Melinda Robertson
+ * @version 17 October 2026
+ */
+public class History {
+
+	/**
+	 * How many steps apart the checkpoints are.
+	 */
+	public static final int CHECKPOINT_EVERY = 32;
+
+	/**
+	 * The most checkpoint images kept.
+	 */
+	public static final int MAX_CHECKPOINTS = 8;
+
+	/**
+	 * The canvas the shapes are drawn on.
+	 */
+	private final Canvas canvas;
+
+	/**
+	 * The shapes.
+	 */
+	private final Drawing drawing;
+
+	/**
+	 * Takes checkpoint images with a transparent background, as the canvas is.
+	 */
+	private final SnapshotParameters snapshot = new SnapshotParameters();
+
+	/**
+	 * The first shape shown after each step.
+	 */
+	private int[] firsts = new int[64];
+
+	/**
+	 * One after the last shape shown after each step.
+	 */
+	private int[] ends = new int[64];
+
+	/**
+	 * The checkpoint images, each at index (step / CHECKPOINT_EVERY) modulo
+	 * MAX_CHECKPOINTS.
+	 */
+	private final WritableImage[] checkpoints = new WritableImage[MAX_CHECKPOINTS];
+
+	/**
+	 * The step shown.
+	 */
+	private int position;
+
+	/**
+	 * The last step that can be redone.
+	 */
+	private int last;
+
+	/**
+	 * The first step that can be undone to.
+	 */
+	private int oldest;
+
+	/**
+	 * Starts a history at the drawing as it is, which becomes step 0.
+	 * @param canvas is the canvas the shapes are drawn on.
+	 * @param drawing is the shapes.
+	 */
+	public History(Canvas canvas, Drawing drawing) {
+		this.canvas = canvas;
+		this.drawing = drawing;
+		snapshot.setFill(Color.TRANSPARENT);
+		firsts[0] = drawing.getFirst();
+		ends[0] = drawing.getEnd();
+		checkpoints[0] = canvas.snapshot(snapshot, null);
+	}
+
+	/**
+	 * Records a step after a shape is added or the drawing is cleared, with
+	 * the canvas already showing it. Steps that could be redone are dropped.
+	 */
+	public void record() {
+		position++;
+		if (position == firsts.length) {
+			firsts = Arrays.copyOf(firsts, position * 2);
+			ends = Arrays.copyOf(ends, position * 2);
+		}
+		firsts[position] = drawing.getFirst();
+		ends[position] = drawing.getEnd();
+		last = position;
+		if (position % CHECKPOINT_EVERY == 0) {
+			checkpoints[position / CHECKPOINT_EVERY % MAX_CHECKPOINTS] =
+					canvas.snapshot(snapshot, checkpoints[position / CHECKPOINT_EVERY % MAX_CHECKPOINTS]);
+			//The image this one replaced was the oldest step undo could reach.
+			oldest = Math.max(oldest, position - (MAX_CHECKPOINTS - 1) * CHECKPOINT_EVERY);
+		}
+	}
+
+	/**
+	 * Checks whether there is a step to undo.
+	 * @return true if undo would do something.
+	 */
+	public boolean canUndo() {
+		return position > oldest;
+	}
+
+	/**
+	 * Checks whether there is a step to redo.
+	 * @return true if redo would do something.
+	 */
+	public boolean canRedo() {
+		return position < last;
+	}
+
+	/**
+	 * Goes back one step.
+	 */
+	public void undo() {
+		if (canUndo()) show(position - 1);
+	}
+
+	/**
+	 * Goes forward one step.
+	 */
+	public void redo() {
+		if (canRedo()) show(position + 1);
+	}
+
+	/**
+	 * Shows a step: paints the checkpoint before it, then the shapes added
+	 * since. If the drawing was cleared in between, the checkpoint is not
+	 * needed and only the shapes since the clear are painted.
+	 * @param step is the step.
+	 */
+	private void show(int step) {
+		int c = step / CHECKPOINT_EVERY * CHECKPOINT_EVERY;
+		GraphicsContext gc = canvas.getGraphicsContext2D();
+		drawing.setShown(firsts[step], ends[step]);
+		gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+		int from = firsts[step];
+		if (firsts[c] == firsts[step]) {
+			gc.drawImage(checkpoints[c / CHECKPOINT_EVERY % MAX_CHECKPOINTS], 0, 0);
+			from = ends[c];
+		}
+		for (int i = from; i < ends[step]; i++) {
+			drawing.paintShape(gc, i);
+		}
+		position = step;
+	}
+}
@@ -0,0 +1,205 @@
+package myapp;
+
+import java.util.Arrays;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.shape.StrokeLineJoin;
+
+/**
+ * The freehand line being drawn in pencil mode. Its points are kept as x, y
+ * pairs in one array of doubles that is reused for every line. Points are
+ * added as the mouse sends them and drawn once per frame by
+ * {@link #flush(GraphicsContext)}, which strokes only the segments added
+ * since the last frame. A frame costs the same however long the line is,
+ * and a fast mouse does not cost one stroke per event.
+ * <p>
+ * When the line is finished, {@link #simplify(double)} drops the points
+ * that lie close to the line through their neighbours.
+ * @author Melinda Robertson
+ * @version 17 October 2026
+ */
+public class PencilStroke {
+
+	/**
+	 * The points as x, y pairs.
+	 */
+	private double[] points = new double[256];
+
+	/**
+	 * The number of points.
+	 */
+	private int size;
+
+	/**
+	 * The number of points already drawn.
+	 */
+	private int drawn;
+
+	/**
+	 * Marks the points simplify keeps; reused for every line.
+	 */
+	private boolean[] keep = new boolean[128];
+
+	/**
+	 * The ranges simplify still has to look at, as first, last pairs;
+	 * reused for every line.
+	 */
+	private int[] ranges = new int[64];
+
+	/**
+	 * Starts a new line and draws its first point as a dot.
+	 * @param gc is the context to draw on.
+	 * @param x is the x coordinate.
+	 * @param y is the y coordinate.
+	 */
+	public void begin(GraphicsContext gc, double x, double y) {
+		size = 0;
+		append(x, y);
+		gc.strokeLine(x, y, x, y);
+		drawn = 1;
+	}
+
+	/**
+	 * Adds a point without drawing it. A point equal to the last one is
+	 * skipped.
+	 * @param x is the x coordinate.
+	 * @param y is the y coordinate.
+	 */
+	public void add(double x, double y) {
+		if (size > 0 && x == points[2 * size - 2] && y == points[2 * size - 1]) return;
+		append(x, y);
+	}
+
+	/**
+	 * Strokes the points added since the last flush as one path joined to
+	 * the line so far.
+	 * @param gc is the context to draw on.
+	 */
+	public void flush(GraphicsContext gc) {
+		if (drawn == 0 || drawn == size) return;
+		StrokeLineJoin join = gc.getLineJoin();
+		gc.setLineJoin(StrokeLineJoin.ROUND);
+		gc.beginPath();
+		gc.moveTo(points[2 * drawn - 2], points[2 * drawn - 1]);
+		for (int i = drawn; i < size; i++) {
+			gc.lineTo(points[2 * i], points[2 * i + 1]);
+		}
+		gc.stroke();
+		gc.setLineJoin(join);
+		drawn = size;
+	}
+
+	/**
+	 * Drops the points that lie within a distance of the line through the
+	 * points kept around them, by Ramer-Douglas-Peucker. The first and
+	 * last points are always kept.
+	 * @param tolerance is the distance in pixels; 0 keeps every point.
+	 */
+	public void simplify(double tolerance) {
+		if (size <= 2 || tolerance <= 0) return;
+		if (keep.length < size) keep = new boolean[Math.max(size, keep.length * 2)];
+		Arrays.fill(keep, 0, size, false);
+		keep[0] = true;
+		keep[size - 1] = true;
+		int top = 0;
+		top = push(top, 0, size - 1);
+		double tol2 = tolerance * tolerance;
+		while (top > 0) {
+			int last = ranges[--top];
+			int first = ranges[--top];
+			int far = -1;
+			double farthest = tol2;
+			for (int i = first + 1; i < last; i++) {
+				double d = distance2(i, first, last);
+				if (d > farthest) {
+					farthest = d;
+					far = i;
+				}
+			}
+			if (far < 0) continue;
+			keep[far] = true;
+			top = push(top, first, far);
+			top = push(top, far, last);
+		}
+		int n = 0;
+		for (int i = 0; i < size; i++) {
+			if (!keep[i]) continue;
+			points[2 * n] = points[2 * i];
+			points[2 * n + 1] = points[2 * i + 1];
+			n++;
+		}
+		size = n;
+		drawn = Math.min(drawn, size);
+	}
+
+	/**
+	 * Retrieve the number of points.
+	 * @return the number of points.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Retrieve the x coordinate of a point.
+	 * @param i is the point's index.
+	 * @return the x coordinate.
+	 */
+	public double getX(int i) {
+		return points[2 * i];
+	}
+
+	/**
+	 * Retrieve the y coordinate of a point.
+	 * @param i is the point's index.
+	 * @return the y coordinate.
+	 */
+	public double getY(int i) {
+		return points[2 * i + 1];
+	}
+
+	/**
+	 * Adds a point, growing the array if it is full.
+	 * @param x is the x coordinate.
+	 * @param y is the y coordinate.
+	 */
+	private void append(double x, double y) {
+		if (2 * size == points.length) points = Arrays.copyOf(points, points.length * 2);
+		points[2 * size] = x;
+		points[2 * size + 1] = y;
+		size++;
+	}
+
+	/**
+	 * Queues a range for simplify if it has points between its ends.
+	 * @param top is the size of the queue.
+	 * @param first is the first point of the range.
+	 * @param last is the last point of the range.
+	 * @return the new size of the queue.
+	 */
+	private int push(int top, int first, int last) {
+		if (last - first < 2) return top;
+		if (top + 2 > ranges.length) ranges = Arrays.copyOf(ranges, ranges.length * 2);
+		ranges[top] = first;
+		ranges[top + 1] = last;
+		return top + 2;
+	}
+
+	/**
+	 * Finds the squared distance from a point to the segment between two
+	 * others.
+	 * @param i is the point.
+	 * @param a is the start of the segment.
+	 * @param b is the end of the segment.
+	 * @return the squared distance.
+	 */
+	private double distance2(int i, int a, int b) {
+		double ax = points[2 * a], ay = points[2 * a + 1];
+		double dx = points[2 * b] - ax, dy = points[2 * b + 1] - ay;
+		double px = points[2 * i] - ax, py = points[2 * i + 1] - ay;
+		double len2 = dx * dx + dy * dy;
+		double t = len2 == 0 ? 0 : Math.max(0, Math.min(1, (px * dx + py * dy) / len2));
+		double ex = px - t * dx, ey = py - t * dy;
+		return ex * ex + ey * ey;
+	}
+}
@@ -1,5 +1,6 @@
 package myapp;
 
+import javafx.animation.AnimationTimer;
 import javafx.application.Application;
 import javafx.event.EventHandler;
 import javafx.geometry.Insets;
@@ -9,16 +10,28 @@ import javafx.scene.Scene;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
 import javafx.scene.control.ColorPicker;
 import javafx.scene.control.Label;
 import javafx.scene.control.Slider;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyCodeCombination;
+import javafx.scene.input.KeyCombination;
+import javafx.scene.input.KeyEvent;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.FlowPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Pane;
 import javafx.scene.layout.VBox;
 import javafx.scene.paint.Color;
+import javafx.scene.shape.Ellipse;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.shape.Shape;
+import javafx.scene.shape.StrokeLineCap;
 import javafx.stage.Stage;
+import metrics.Metrics;
+import metrics.MetricsOverlay;
+import metrics.Timer;
 
 /**
  * Simple Sketch application that draws lines, ovals and rectangles in various colors
@@ -41,6 +54,14 @@ public class Sketch extends Application {
 	 * The minimum value for line width.
 	 */
 	private static final Double MINSTROKE = 1.0;
+	/**
+	 * The default distance in pixels within which pencil points are dropped.
+	 */
+	private static final Double DEFAULTSIMPLIFY = 1.0;
+	/**
+	 * The max distance within which pencil points are dropped.
+	 */
+	private static final Double MAXSIMPLIFY = 5.0;
 	/**
 	 * The size of the canvas.
 	 */
@@ -57,19 +78,83 @@ public class Sketch extends Application {
 	 * Defines the rectangle drawing mode.
 	 */
 	private static final int RECTANGLE = 3;
+	/**
+	 * Times the mouse press handler.
+	 */
+	private static final Timer PRESS_TIMER = Metrics.timer("sketch.press");
+	/**
+	 * Times the mouse drag handler.
+	 */
+	private static final Timer DRAG_TIMER = Metrics.timer("sketch.drag");
+	/**
+	 * Times the mouse release handler.
+	 */
+	private static final Timer RELEASE_TIMER = Metrics.timer("sketch.release");
+	/**
+	 * The keys that undo.
+	 */
+	private static final KeyCombination UNDO =
+			new KeyCodeCombination(KeyCode.Z, KeyCombination.SHORTCUT_DOWN);
+	/**
+	 * The keys that redo.
+	 */
+	private static final KeyCombination REDO =
+			new KeyCodeCombination(KeyCode.Y, KeyCombination.SHORTCUT_DOWN);
 	
 	/**
 	 * The current drawing mode.
 	 */
 	private int currentState;
 	/**
-	 * The beginning point of a stroke.
+	 * The x coordinate where a stroke began.
+	 */
+	private double x1;
+	/**
+	 * The y coordinate where a stroke began.
 	 */
-	private Point2D p1;
+	private double y1;
 	/**
-	 * The end point of a stroke.
+	 * The line being drawn in pencil mode.
 	 */
-	private Point2D p2;
+	private final PencilStroke pencilStroke = new PencilStroke();
+	/**
+	 * Draws the pencil points that arrived since the last frame, once per
+	 * frame, while a line is being drawn.
+	 */
+	private AnimationTimer pencilFrame;
+	/**
+	 * Slider that determines how far a pencil point may be from the
+	 * simplified line.
+	 */
+	private Slider simplify = new Slider(0, MAXSIMPLIFY, DEFAULTSIMPLIFY);
+	/**
+	 * Draws pencil lines as curves through their points.
+	 */
+	private CheckBox smooth = new CheckBox("Smooth Lines");
+	/**
+	 * Every shape drawn, kept to paint the canvas again.
+	 */
+	private final Drawing drawing = new Drawing();
+	/**
+	 * Undoes and redoes changes to the drawing.
+	 */
+	private History history;
+	/**
+	 * The button that undoes.
+	 */
+	private Button btnUndo;
+	/**
+	 * The button that redoes.
+	 */
+	private Button btnRedo;
+	/**
+	 * Shows an oval while it is dragged out, over the canvas.
+	 */
+	private final Ellipse ovalPreview = new Ellipse();
+	/**
+	 * Shows a rectangle while it is dragged out, over the canvas.
+	 */
+	private final Rectangle rectPreview = new Rectangle();
 	
 	/**
 	 * Slider that determines the stroke width.
@@ -126,8 +211,20 @@ public class Sketch extends Application {
 		mainBox.getChildren().addAll(canvasPane, buttonBox);
 		
 		root.getChildren().add(mainBox);
+		scene.addEventHandler(KeyEvent.KEY_PRESSED, e -> {
+			if (UNDO.match(e)) {
+				history.undo();
+			} else if (REDO.match(e)) {
+				history.redo();
+			} else {
+				return;
+			}
+			updateHistoryButtons();
+			e.consume();
+		});
 		stage.setScene(scene);
 		stage.show();
+		MetricsOverlay.install(stage, "Sketch");
 	}
 	
 	/**
@@ -140,76 +237,151 @@ public class Sketch extends Application {
 		
 		final GraphicsContext gc = canvas.getGraphicsContext2D();
 		gc.setFill(Color.BLACK);
+		//Round caps join the separately stroked pencil segments.
+		gc.setLineCap(StrokeLineCap.ROUND);
+		
+		pencilFrame = new AnimationTimer() {
+			@Override
+			public void handle(long now) {
+				pencilStroke.flush(gc);
+			}
+		};
 		
 		//--------------MOUSE EVENT HANDLERS------------------------
 		canvas.setOnMousePressed(new EventHandler<MouseEvent>() {
 			@Override
 			public void handle(MouseEvent e) {
-				p1 = new Point2D(e.getSceneX(), e.getSceneY());
-				gc.beginPath();
-				gc.moveTo(e.getX(), e.getY());
-				gc.stroke();	
+				Timer.Sample sample = PRESS_TIMER.start();
+				try {
+					x1 = e.getX();
+					y1 = e.getY();
+					if (currentState == PENCIL) {
+						pencilStroke.begin(gc, x1, y1);
+						pencilFrame.start();
+					}
+				} finally {
+					sample.stop();
+				}
 			}
 		});
 		canvas.setOnMouseDragged(new EventHandler<MouseEvent>() {
 			@Override
 			public void handle(MouseEvent e) {
-				p2 = new Point2D(e.getSceneX(), e.getSceneY());
-				switch(currentState) {
-				case PENCIL:
-					gc.lineTo(e.getSceneX(), e.getSceneY());
-					gc.stroke();
-					break;
-				case CIRCLE:
-					break;
-				case RECTANGLE:
-					break;
+				Timer.Sample sample = DRAG_TIMER.start();
+				try {
+					double x2 = e.getX();
+					double y2 = e.getY();
+					switch(currentState) {
+					case PENCIL:
+						pencilStroke.add(x2, y2);
+						break;
+					case CIRCLE:
+						ovalPreview.setCenterX((x1 + x2) / 2);
+						ovalPreview.setCenterY((y1 + y2) / 2);
+						ovalPreview.setRadiusX(Math.abs(x2 - x1) / 2);
+						ovalPreview.setRadiusY(Math.abs(y2 - y1) / 2);
+						showPreview(ovalPreview, gc);
+						break;
+					case RECTANGLE:
+						rectPreview.setX(Math.min(x1, x2));
+						rectPreview.setY(Math.min(y1, y2));
+						rectPreview.setWidth(Math.abs(x2 - x1));
+						rectPreview.setHeight(Math.abs(y2 - y1));
+						showPreview(rectPreview, gc);
+						break;
+					}
+				} finally {
+					sample.stop();
 				}
 			}
 		});
 		canvas.setOnMouseReleased(new EventHandler<MouseEvent>() {
 			@Override
 			public void handle(MouseEvent e) {
-				p2 = new Point2D(e.getSceneX(), e.getSceneY());
-				switch(currentState) {
-				case PENCIL:
-					break;
-				case CIRCLE:
-					if (p2.getX() > p1.getX() && p2.getY() > p1.getY()) {
-						gc.strokeOval(p1.getX(), p1.getY(),
-								p2.getX() - p1.getX(), p2.getY() - p1.getY());
-					} else if (p2.getX() > p1.getX() && p1.getY() > p2.getY()) {
-						gc.strokeOval(p1.getX(), p2.getY(),
-								p2.getX() - p1.getX(), p1.getY() - p2.getY());
-					} else if (p1.getX() > p2.getX() && p1.getY() > p2.getY()) {
-						gc.strokeOval(p2.getX(), p2.getY(),
-								p1.getX() - p2.getX(), p1.getY() - p2.getY());
-					} else {
-						gc.strokeOval(p2.getX(), p1.getY(),
-								p1.getX() - p2.getX(), p2.getY() - p1.getY());
-					}
-					break;
-				case RECTANGLE:
-					if (p2.getX() > p1.getX() && p2.getY() > p1.getY()) {
-						gc.strokeRect(p1.getX(), p1.getY(),
-								p2.getX() - p1.getX(), p2.getY() - p1.getY());
-					} else if (p2.getX() > p1.getX() && p1.getY() > p2.getY()) {
-						gc.strokeRect(p1.getX(), p2.getY(),
-								p2.getX() - p1.getX(), p1.getY() - p2.getY());
-					} else if (p1.getX() > p2.getX() && p1.getY() > p2.getY()) {
-						gc.strokeRect(p2.getX(), p2.getY(),
-								p1.getX() - p2.getX(), p1.getY() - p2.getY());
-					} else {
-						gc.strokeRect(p2.getX(), p1.getY(),
-								p1.getX() - p2.getX(), p2.getY() - p1.getY());
+				Timer.Sample sample = RELEASE_TIMER.start();
+				try {
+					ovalPreview.setVisible(false);
+					rectPreview.setVisible(false);
+					double x2 = e.getX();
+					double y2 = e.getY();
+					double left = Math.min(x1, x2);
+					double top = Math.min(y1, y2);
+					double width = Math.abs(x2 - x1);
+					double height = Math.abs(y2 - y1);
+					switch(currentState) {
+					case PENCIL:
+						pencilFrame.stop();
+						pencilStroke.add(x2, y2);
+						pencilStroke.flush(gc);
+						//Paint the line as it is kept, which may differ from the
+						//raw line by the tolerance.
+						double tolerance = simplify.getValue();
+						pencilStroke.simplify(tolerance);
+						drawing.addPolyline(pencilStroke, lineColor.getValue(), gc.getLineWidth(),
+								smooth.isSelected());
+						drawing.invalidateShape(drawing.getEnd() - 1, tolerance + gc.getLineWidth());
+						drawing.paintDirty(gc);
+						commit();
+						break;
+					case CIRCLE:
+						gc.strokeOval(left, top, width, height);
+						drawing.addShape(Drawing.OVAL, left, top, width, height,
+								lineColor.getValue(), gc.getLineWidth());
+						commit();
+						break;
+					case RECTANGLE:
+						gc.strokeRect(left, top, width, height);
+						drawing.addShape(Drawing.RECT, left, top, width, height,
+								lineColor.getValue(), gc.getLineWidth());
+						commit();
+						break;
 					}
-					break;
+				} finally {
+					sample.stop();
 				}
 			}
 		});
 		
+		//The previews are nodes over the canvas, so dragging one out redraws
+		//only the preview; the shape is drawn onto the canvas once, on release.
+		for (Shape preview : new Shape[] {ovalPreview, rectPreview}) {
+			preview.setFill(null);
+			preview.setManaged(false);
+			preview.setMouseTransparent(true);
+			preview.setVisible(false);
+		}
+		canvasPane.setClip(new Rectangle(SIZE, SIZE));
+		history = new History(canvas, drawing);
+		
 		//Add the canvas.
-		canvasPane.getChildren().add(canvas);
+		canvasPane.getChildren().addAll(canvas, ovalPreview, rectPreview);
+	}
+	
+	/**
+	 * Records a change to the drawing so it can be undone.
+	 */
+	private void commit() {
+		history.record();
+		updateHistoryButtons();
+	}
+	
+	/**
+	 * Enables the undo and redo buttons when they would do something.
+	 */
+	private void updateHistoryButtons() {
+		btnUndo.setDisable(!history.canUndo());
+		btnRedo.setDisable(!history.canRedo());
+	}
+	
+	/**
+	 * Shows a preview in the current line color and width.
+	 * @param preview is the preview.
+	 * @param gc is the canvas context, which holds the color and width.
+	 */
+	private void showPreview(Shape preview, GraphicsContext gc) {
+		preview.setStroke(gc.getStroke());
+		preview.setStrokeWidth(gc.getLineWidth());
+		preview.setVisible(true);
 	}
 	
 	/**
@@ -229,6 +401,8 @@ public class Sketch extends Application {
 					oldValue, newValue) ->
 				canvas.getGraphicsContext2D().setLineWidth((double) newValue));
 		
+		Label simplifyLabel = new Label("Pencil Simplify");
+		
 		Label lineLabel = new Label("Line Color");
 		lineColor = new ColorPicker(Color.BLACK);
 		lineColor.valueProperty().addListener(
@@ -244,14 +418,31 @@ public class Sketch extends Application {
 		
 		Button btnClear = new Button();
 		btnClear.setText("Clear");
-		btnClear.setOnAction((event) ->
-				canvas.getGraphicsContext2D().clearRect(0, 0, canvas.getWidth(), canvas.getHeight()));
+		btnClear.setOnAction((event) -> {
+			drawing.clear();
+			drawing.paintDirty(canvas.getGraphicsContext2D());
+			commit();
+		});
+		
+		btnUndo = new Button("Undo");
+		btnUndo.setOnAction((event) -> {
+			history.undo();
+			updateHistoryButtons();
+		});
+		btnRedo = new Button("Redo");
+		btnRedo.setOnAction((event) -> {
+			history.redo();
+			updateHistoryButtons();
+		});
+		updateHistoryButtons();
+		HBox historyBox = new HBox(5, btnUndo, btnRedo);
 		
 		//Build a separate box for the mode selectors.
 		buildStateBox();
 		
-		buttonBox.getChildren().addAll(stateBox, strokeLabel, stroke, lineLabel, lineColor, 
-				canvasLabel, canvasColor, btnClear);
+		buttonBox.getChildren().addAll(stateBox, strokeLabel, stroke, simplifyLabel, simplify,
+				smooth, lineLabel, lineColor, 
+				canvasLabel, canvasColor, btnClear, historyBox);
 	}
 	
 	/**
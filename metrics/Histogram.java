@@ -0,0 +1,148 @@
+package metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts non-negative long values, such as durations in nanoseconds, in
+ * buckets that grow with the value: each power of two is split into eight,
+ * so a percentile is within an eighth of the true value. Recording is a few
+ * atomic adds and never allocates, so it can be used from any thread.
+ * @author Melinda Robertson
+ * @version 17 October 2026
+ */
+public final class Histogram {
+
+	/**
+	 * Values below this have a bucket each.
+	 */
+	private static final int LINEAR = 16;
+
+	/**
+	 * Buckets per power of two above {@link #LINEAR}, as a shift.
+	 */
+	private static final int SUB_BITS = 3;
+
+	/**
+	 * The number of buckets, enough for any long.
+	 */
+	private static final int BUCKETS = LINEAR + (63 - 4) * (1 << SUB_BITS);
+
+	/**
+	 * The number of values in each bucket.
+	 */
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+	/**
+	 * The number of values.
+	 */
+	private final AtomicLong count = new AtomicLong();
+
+	/**
+	 * The sum of the values.
+	 */
+	private final AtomicLong sum = new AtomicLong();
+
+	/**
+	 * The largest value.
+	 */
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * Counts one value. Negative values count as zero.
+	 * @param v is the value.
+	 */
+	public void record(long v) {
+		if (v < 0) v = 0;
+		buckets.incrementAndGet(bucket(v));
+		count.incrementAndGet();
+		sum.addAndGet(v);
+		if (v > max.get()) max.accumulateAndGet(v, Math::max);
+	}
+
+	/**
+	 * Retrieve the number of values.
+	 * @return the count.
+	 */
+	public long getCount() {
+		return count.get();
+	}
+
+	/**
+	 * Retrieve the sum of the values.
+	 * @return the sum.
+	 */
+	public long getSum() {
+		return sum.get();
+	}
+
+	/**
+	 * Retrieve the largest value.
+	 * @return the maximum, or 0 if there are none.
+	 */
+	public long getMax() {
+		return max.get();
+	}
+
+	/**
+	 * Retrieve the mean value.
+	 * @return the mean, or 0 if there are none.
+	 */
+	public double getMean() {
+		long n = count.get();
+		return n == 0 ? 0 : (double) sum.get() / n;
+	}
+
+	/**
+	 * Retrieve the value at a fraction of the way through the values in order.
+	 * @param q is the fraction, from 0 to 1.
+	 * @return the largest value in the bucket that holds it, or 0 if there are
+	 * none.
+	 */
+	public long percentile(double q) {
+		long n = count.get();
+		if (n == 0) return 0;
+		long rank = Math.max(1, (long) Math.ceil(q * n));
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += buckets.get(i);
+			if (seen >= rank) return Math.min(upper(i), max.get());
+		}
+		return max.get();
+	}
+
+	/**
+	 * Forgets every value.
+	 */
+	public void reset() {
+		for (int i = 0; i < BUCKETS; i++) buckets.set(i, 0);
+		count.set(0);
+		sum.set(0);
+		max.set(0);
+	}
+
+	/**
+	 * Finds the bucket of a value.
+	 * @param v is the value, not negative.
+	 * @return the bucket.
+	 */
+	private static int bucket(long v) {
+		if (v < LINEAR) return (int) v;
+		int exp = 63 - Long.numberOfLeadingZeros(v);
+		int sub = (int) (v >>> (exp - SUB_BITS)) & ((1 << SUB_BITS) - 1);
+		return LINEAR + ((exp - 4) << SUB_BITS) + sub;
+	}
+
+	/**
+	 * Finds the largest value that falls in a bucket.
+	 * @param b is the bucket.
+	 * @return the value.
+	 */
+	private static long upper(int b) {
+		if (b < LINEAR) return b;
+		int exp = ((b - LINEAR) >> SUB_BITS) + 4;
+		long sub = (b - LINEAR) & ((1 << SUB_BITS) - 1);
+		long low = (1L << exp) | (sub << (exp - SUB_BITS));
+		return low + (1L << (exp - SUB_BITS)) - 1;
+	}
+}
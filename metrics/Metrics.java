@@ -0,0 +1,250 @@
+package metrics;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.ToDoubleFunction;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * The named timers of an app, with the garbage collector's counts beside
+ * them. Metrics are off unless the JVM is started with -Dmetrics=true;
+ * while off, timers cost a field read and record nothing. The timers can be
+ * read as a text report, written to a file or watched over JMX. This class
+ * needs only the JDK; {@link MetricsOverlay} adds frame timing and an
+ * on-screen view for JavaFX apps.
+ * @author Melinda Robertson
+ * @version 17 October 2026
+ */
+public final class Metrics {
+
+	/**
+	 * True if metrics are recorded.
+	 */
+	private static final boolean ENABLED = Boolean.getBoolean("metrics");
+
+	/**
+	 * Every timer, by name in order.
+	 */
+	private static final Map<String, Timer> TIMERS = new ConcurrentSkipListMap<>();
+
+	/**
+	 * Nanoseconds in a millisecond.
+	 */
+	private static final double NANOS_PER_MILLI = 1e6;
+
+	/**
+	 * Metrics are reached through static methods.
+	 */
+	private Metrics() {
+	}
+
+	/**
+	 * Retrieve whether metrics are recorded.
+	 * @return true if the JVM was started with -Dmetrics=true.
+	 */
+	public static boolean isEnabled() {
+		return ENABLED;
+	}
+
+	/**
+	 * Retrieve a timer, making it the first time its name is asked for.
+	 * @param name is a dotted name such as tablechart.updateCalcBox.
+	 * @return the timer.
+	 */
+	public static Timer timer(String name) {
+		return TIMERS.computeIfAbsent(name, Timer::new);
+	}
+
+	/**
+	 * Retrieve every timer.
+	 * @return the timers in name order.
+	 */
+	public static Collection<Timer> getTimers() {
+		return TIMERS.values();
+	}
+
+	/**
+	 * Retrieve the number of garbage collections so far.
+	 * @return the count over every collector.
+	 */
+	public static long getGcCount() {
+		long n = 0;
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+			n += Math.max(0, gc.getCollectionCount());
+		}
+		return n;
+	}
+
+	/**
+	 * Retrieve the time spent collecting garbage so far.
+	 * @return the milliseconds over every collector.
+	 */
+	public static long getGcMillis() {
+		long t = 0;
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+			t += Math.max(0, gc.getCollectionTime());
+		}
+		return t;
+	}
+
+	/**
+	 * Forgets every run of every timer.
+	 */
+	public static void reset() {
+		for (Timer t : TIMERS.values()) t.reset();
+	}
+
+	/**
+	 * Retrieve every metric as a text table: one line per timer with its
+	 * count, mean, median, 99th percentile and largest time in milliseconds
+	 * and the kilobytes it allocates per run, then the heap and collector
+	 * totals.
+	 * @return the report.
+	 */
+	public static String report() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format(Locale.ROOT, "%-32s %8s %9s %9s %9s %9s %10s%n",
+				"timer", "count", "mean ms", "p50 ms", "p99 ms", "max ms", "KB/run"));
+		for (Timer t : TIMERS.values()) {
+			Histogram h = t.getTimes();
+			sb.append(String.format(Locale.ROOT, "%-32s %8d %9.3f %9.3f %9.3f %9.3f %10.1f%n",
+					t.getName(), h.getCount(), h.getMean() / NANOS_PER_MILLI,
+					h.percentile(0.5) / NANOS_PER_MILLI, h.percentile(0.99) / NANOS_PER_MILLI,
+					h.getMax() / NANOS_PER_MILLI, t.getAllocatedPerRun() / 1024));
+		}
+		MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+		sb.append(String.format(Locale.ROOT, "heap %d of %d MB, %d collections in %d ms%n",
+				heap.getUsed() >> 20, heap.getCommitted() >> 20, getGcCount(), getGcMillis()));
+		return sb.toString();
+	}
+
+	/**
+	 * Writes the report to a file, replacing it.
+	 * @param file is the file to write.
+	 * @throws IOException if it cannot be written.
+	 */
+	public static void writeReport(Path file) throws IOException {
+		Files.write(file, report().getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Makes the metrics visible over JMX as metrics:type=Metrics,app=name.
+	 * Does nothing while metrics are off or if the name is taken.
+	 * @param app names the app.
+	 */
+	public static void register(String app) {
+		if (!ENABLED) return;
+		try {
+			ObjectName name = new ObjectName("metrics:type=Metrics,app=" + ObjectName.quote(app));
+			if (!ManagementFactory.getPlatformMBeanServer().isRegistered(name)) {
+				ManagementFactory.getPlatformMBeanServer().registerMBean(new Bean(), name);
+			}
+		} catch (JMException e) {
+			System.err.println("Could not register metrics: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Collects one value of every timer.
+	 * @param f reads the value.
+	 * @return the values by timer name.
+	 */
+	private static Map<String, Double> each(ToDoubleFunction<Timer> f) {
+		Map<String, Double> m = new LinkedHashMap<>();
+		for (Timer t : TIMERS.values()) m.put(t.getName(), f.applyAsDouble(t));
+		return m;
+	}
+
+	/**
+	 * Shows the metrics to JMX.
+	 */
+	private static final class Bean implements MetricsMXBean {
+
+		/**
+		 * Retrieve the number of runs of each timer.
+		 */
+		@Override
+		public Map<String, Long> getCounts() {
+			Map<String, Long> m = new LinkedHashMap<>();
+			for (Timer t : TIMERS.values()) m.put(t.getName(), t.getTimes().getCount());
+			return m;
+		}
+
+		/**
+		 * Retrieve the mean time of each timer.
+		 */
+		@Override
+		public Map<String, Double> getMeanMillis() {
+			return each(t -> t.getTimes().getMean() / NANOS_PER_MILLI);
+		}
+
+		/**
+		 * Retrieve the 99th percentile time of each timer.
+		 */
+		@Override
+		public Map<String, Double> getP99Millis() {
+			return each(t -> t.getTimes().percentile(0.99) / NANOS_PER_MILLI);
+		}
+
+		/**
+		 * Retrieve the mean bytes allocated per run of each timer.
+		 */
+		@Override
+		public Map<String, Double> getAllocatedPerRun() {
+			return each(Timer::getAllocatedPerRun);
+		}
+
+		/**
+		 * Retrieve the number of garbage collections so far.
+		 */
+		@Override
+		public long getGcCount() {
+			return Metrics.getGcCount();
+		}
+
+		/**
+		 * Retrieve the time spent collecting garbage so far.
+		 */
+		@Override
+		public long getGcMillis() {
+			return Metrics.getGcMillis();
+		}
+
+		/**
+		 * Retrieve every metric as a text table.
+		 */
+		@Override
+		public String getReport() {
+			return report();
+		}
+
+		/**
+		 * Writes the report to a file.
+		 */
+		@Override
+		public void writeReport(String path) throws IOException {
+			Metrics.writeReport(Paths.get(path));
+		}
+
+		/**
+		 * Forgets every run of every timer.
+		 */
+		@Override
+		public void reset() {
+			Metrics.reset();
+		}
+	}
+}
@@ -0,0 +1,67 @@
+package metrics;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * The metrics as JMX sees them, so JConsole or VisualVM can watch a running
+ * app. Registered by {@link Metrics#register(String)}.
+ * @author Melinda Robertson
+ * @version 17 October 2026
+ */
+public interface MetricsMXBean {
+
+	/**
+	 * Retrieve the number of runs of each timer.
+	 * @return the counts by timer name.
+	 */
+	Map<String, Long> getCounts();
+
+	/**
+	 * Retrieve the mean time of each timer.
+	 * @return the milliseconds by timer name.
+	 */
+	Map<String, Double> getMeanMillis();
+
+	/**
+	 * Retrieve the 99th percentile time of each timer.
+	 * @return the milliseconds by timer name.
+	 */
+	Map<String, Double> getP99Millis();
+
+	/**
+	 * Retrieve the mean bytes allocated per run of each timer.
+	 * @return the bytes by timer name.
+	 */
+	Map<String, Double> getAllocatedPerRun();
+
+	/**
+	 * Retrieve the number of garbage collections so far.
+	 * @return the count over every collector.
+	 */
+	long getGcCount();
+
+	/**
+	 * Retrieve the time spent collecting garbage so far.
+	 * @return the milliseconds over every collector.
+	 */
+	long getGcMillis();
+
+	/**
+	 * Retrieve every metric as a text table.
+	 * @return the report.
+	 */
+	String getReport();
+
+	/**
+	 * Writes the report to a file.
+	 * @param path is the file to write.
+	 * @throws IOException if it cannot be written.
+	 */
+	void writeReport(String path) throws IOException;
+
+	/**
+	 * Forgets every run of every timer.
+	 */
+	void reset();
+}
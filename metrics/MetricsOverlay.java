@@ -0,0 +1,203 @@
+package metrics;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Locale;
+
+import javafx.animation.AnimationTimer;
+import javafx.scene.control.Label;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyCodeCombination;
+import javafx.scene.input.KeyCombination;
+import javafx.scene.input.KeyEvent;
+import javafx.stage.Popup;
+import javafx.stage.Stage;
+import javafx.stage.WindowEvent;
+
+/**
+ * Times every JavaFX pulse into the fx.frame timer and shows the metrics
+ * over a stage. F12 shows or hides the overlay, which is redrawn once a
+ * second with the frame rate, the slowest frame, the collections in that
+ * second and every timer. When the stage closes the report is written to
+ * the file named by -Dmetrics.file, if there is one.
+ * <p>
+ * A running AnimationTimer asks for a pulse every frame, so an app with
+ * metrics on redraws at the full frame rate even when idle. That is why it
+ * is installed only while metrics are on.
+ * @author Melinda Robertson
+ * @version 17 October 2026
+ */
+public final class MetricsOverlay extends AnimationTimer {
+
+	/**
+	 * Shows or hides the overlay.
+	 */
+	private static final KeyCombination TOGGLE = new KeyCodeCombination(KeyCode.F12);
+
+	/**
+	 * A frame longer than this, two frames at 60 Hz, counts as slow.
+	 */
+	private static final long SLOW_FRAME = 2_000_000_000L / 60;
+
+	/**
+	 * How often the overlay is redrawn, in nanoseconds.
+	 */
+	private static final long REFRESH = 1_000_000_000L;
+
+	/**
+	 * The time between pulses.
+	 */
+	private final Timer frames = Metrics.timer("fx.frame");
+
+	/**
+	 * The stage the overlay sits over.
+	 */
+	private final Stage stage;
+
+	/**
+	 * Holds the overlay.
+	 */
+	private final Popup popup = new Popup();
+
+	/**
+	 * Shows the metrics.
+	 */
+	private final Label label = new Label();
+
+	/**
+	 * The time of the last pulse, or 0 before the first.
+	 */
+	private long last;
+
+	/**
+	 * When the current second of frames began.
+	 */
+	private long secondStart;
+
+	/**
+	 * The frames in the current second.
+	 */
+	private int secondFrames;
+
+	/**
+	 * The slowest frame in the current second, in nanoseconds.
+	 */
+	private long secondWorst;
+
+	/**
+	 * The slow frames in the current second.
+	 */
+	private int secondSlow;
+
+	/**
+	 * The collection count when the current second began.
+	 */
+	private long secondGcs;
+
+	/**
+	 * Creates an overlay for a stage.
+	 * @param stage is the stage.
+	 */
+	private MetricsOverlay(Stage stage) {
+		this.stage = stage;
+		label.setStyle("-fx-font-family: monospace; -fx-text-fill: white;"
+				+ " -fx-background-color: rgba(0, 0, 0, 0.75); -fx-padding: 6;");
+		label.setMouseTransparent(true);
+		popup.getContent().add(label);
+	}
+
+	/**
+	 * Starts timing the pulses of a stage and lets F12 show the overlay.
+	 * Call after the stage has its scene. Does nothing while metrics are off.
+	 * @param stage is the stage.
+	 * @param app names the app for JMX.
+	 */
+	public static void install(Stage stage, String app) {
+		if (!Metrics.isEnabled()) return;
+		Metrics.register(app);
+		MetricsOverlay overlay = new MetricsOverlay(stage);
+		stage.getScene().addEventFilter(KeyEvent.KEY_PRESSED, e -> {
+			if (TOGGLE.match(e)) {
+				overlay.toggle();
+				e.consume();
+			}
+		});
+		stage.addEventHandler(WindowEvent.WINDOW_HIDDEN, e -> overlay.close());
+		overlay.start();
+	}
+
+	/**
+	 * Counts one pulse and redraws the overlay once a second.
+	 * @param now is the time of the pulse.
+	 */
+	@Override
+	public void handle(long now) {
+		if (last == 0) {
+			secondStart = now;
+			secondGcs = Metrics.getGcCount();
+		} else {
+			long d = now - last;
+			frames.record(d);
+			secondFrames++;
+			if (d > secondWorst) secondWorst = d;
+			if (d > SLOW_FRAME) secondSlow++;
+		}
+		last = now;
+		if (now - secondStart >= REFRESH) {
+			if (popup.isShowing()) redraw(now - secondStart);
+			secondStart = now;
+			secondFrames = 0;
+			secondWorst = 0;
+			secondSlow = 0;
+			secondGcs = Metrics.getGcCount();
+		}
+	}
+
+	/**
+	 * Shows or hides the overlay.
+	 */
+	private void toggle() {
+		if (popup.isShowing()) {
+			popup.hide();
+		} else {
+			label.setText("Collecting...");
+			popup.show(stage, stage.getX() + 8, stage.getY() + 32);
+		}
+	}
+
+	/**
+	 * Stops timing and writes the report if a file was named.
+	 */
+	private void close() {
+		stop();
+		popup.hide();
+		String file = System.getProperty("metrics.file");
+		if (file == null) return;
+		try {
+			Metrics.writeReport(Paths.get(file));
+		} catch (IOException e) {
+			System.err.println("Could not write metrics to " + file + ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Shows the last second of frames and every timer.
+	 * @param span is the length of the second in nanoseconds.
+	 */
+	private void redraw(long span) {
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format(Locale.ROOT, "%.0f fps, slowest %.1f ms, %d slow, %d GCs%n",
+				secondFrames * 1e9 / span, secondWorst / 1e6, secondSlow,
+				Metrics.getGcCount() - secondGcs));
+		for (Timer t : Metrics.getTimers()) {
+			Histogram h = t.getTimes();
+			if (h.getCount() == 0) continue;
+			sb.append(String.format(Locale.ROOT, "%-28s p50 %7.3f p99 %7.3f ms %8.1f KB%n",
+					t.getName(), h.percentile(0.5) / 1e6, h.percentile(0.99) / 1e6,
+					t.getAllocatedPerRun() / 1024));
+		}
+		label.setText(sb.toString().trim());
+		popup.setX(stage.getX() + 8);
+		popup.setY(stage.getY() + 32);
+	}
+}
@@ -0,0 +1,180 @@
+package metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Times a named piece of code and counts what it allocates. Get one from
+ * {@link Metrics#timer(String)} and keep it in a static field, then wrap
+ * the code:
+ * <pre>
+ * Timer.Sample s = UPDATE.start();
+ * try {
+ *     ...
+ * } finally {
+ *     s.stop();
+ * }
+ * </pre>
+ * While metrics are off, start returns one shared sample whose stop does
+ * nothing, so the cost is a field read and a call.
+ * @author Melinda Robertson
+ * @version 17 October 2026
+ */
+public final class Timer {
+
+	/**
+	 * Reads the bytes each thread has allocated, or null if this JVM cannot
+	 * or metrics are off. Counting allocations costs every thread a little,
+	 * so it is turned on only while metrics are.
+	 */
+	private static final com.sun.management.ThreadMXBean THREADS =
+			Metrics.isEnabled() ? threads() : null;
+
+	/**
+	 * The sample returned while metrics are off.
+	 */
+	private static final Sample OFF = new Sample(null, 0, 0);
+
+	/**
+	 * The name, such as tablechart.updateCalcBox.
+	 */
+	private final String name;
+
+	/**
+	 * The durations in nanoseconds.
+	 */
+	private final Histogram times = new Histogram();
+
+	/**
+	 * The bytes allocated by every timed run together.
+	 */
+	private final AtomicLong allocated = new AtomicLong();
+
+	/**
+	 * Creates a timer. Made only by {@link Metrics}.
+	 * @param name is the name.
+	 */
+	Timer(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Starts timing a run on this thread.
+	 * @return the sample to stop when the run ends.
+	 */
+	public Sample start() {
+		if (!Metrics.isEnabled()) return OFF;
+		return new Sample(this, System.nanoTime(), allocatedBytes());
+	}
+
+	/**
+	 * Counts a run timed some other way.
+	 * @param nanos is how long it took.
+	 */
+	public void record(long nanos) {
+		if (Metrics.isEnabled()) times.record(nanos);
+	}
+
+	/**
+	 * Retrieve the name.
+	 * @return the name.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Retrieve the durations in nanoseconds.
+	 * @return the histogram.
+	 */
+	public Histogram getTimes() {
+		return times;
+	}
+
+	/**
+	 * Retrieve the mean bytes allocated per run.
+	 * @return the bytes, or 0 if this JVM cannot count them.
+	 */
+	public double getAllocatedPerRun() {
+		long n = times.getCount();
+		return n == 0 ? 0 : (double) allocated.get() / n;
+	}
+
+	/**
+	 * Forgets every run.
+	 */
+	public void reset() {
+		times.reset();
+		allocated.set(0);
+	}
+
+	/**
+	 * Retrieve the bytes the current thread has allocated so far.
+	 * @return the bytes, or 0 if this JVM cannot count them.
+	 */
+	private static long allocatedBytes() {
+		return THREADS == null ? 0 : THREADS.getCurrentThreadAllocatedBytes();
+	}
+
+	/**
+	 * Finds the HotSpot thread bean and turns on allocation counting.
+	 * @return the bean, or null if this JVM does not have one.
+	 */
+	private static com.sun.management.ThreadMXBean threads() {
+		try {
+			java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+			if (bean instanceof com.sun.management.ThreadMXBean) {
+				com.sun.management.ThreadMXBean hotspot = (com.sun.management.ThreadMXBean) bean;
+				if (hotspot.isThreadAllocatedMemorySupported()) {
+					hotspot.setThreadAllocatedMemoryEnabled(true);
+					return hotspot;
+				}
+			}
+		} catch (UnsupportedOperationException | SecurityException e) {
+			//Fall through to timing only.
+		}
+		return null;
+	}
+
+	/**
+	 * One timed run.
+	 */
+	public static final class Sample {
+
+		/**
+		 * The timer, or null for the sample used while metrics are off.
+		 */
+		private final Timer timer;
+
+		/**
+		 * When the run started.
+		 */
+		private final long started;
+
+		/**
+		 * The thread's allocated bytes when the run started.
+		 */
+		private final long allocatedBefore;
+
+		/**
+		 * Creates a sample.
+		 * @param timer is the timer.
+		 * @param started is when the run started.
+		 * @param allocatedBefore is the thread's allocated bytes so far.
+		 */
+		private Sample(Timer timer, long started, long allocatedBefore) {
+			this.timer = timer;
+			this.started = started;
+			this.allocatedBefore = allocatedBefore;
+		}
+
+		/**
+		 * Ends the run and counts it. Call on the thread that started it.
+		 */
+		public void stop() {
+			if (timer == null) return;
+			timer.times.record(System.nanoTime() - started);
+			if (THREADS != null) timer.allocated.addAndGet(allocatedBytes() - allocatedBefore);
+		}
+	}
+}
@@ -0,0 +1,77 @@
+package smallstatapp;
+
+import javafx.collections.ObservableList;
+import javafx.scene.chart.XYChart;
+
+/**
+ * Adapts JavaFX chart data to the JavaFX-free {@link Statistics} and
+ * {@link Summary}. Each point is unboxed once into primitive columns and
+ * the work is done on those.
+ * @author Melinda Robertson
+ * @version 17 October 2026
+ */
+public final class ChartStatistics {
+
+	/**
+	 * Not made; use the static methods.
+	 */
+	private ChartStatistics() {
+	}
+
+	/**
+	 * Creates statistics for the points of a chart series.
+	 * @param data is the data to reference.
+	 * @return the statistics.
+	 */
+	public static Statistics of(ObservableList<XYChart.Data<Number, Number>> data) {
+		double[][] array = columns(data);
+		return new Statistics(array[0], array[1]);
+	}
+
+	/**
+	 * Summarizes one component of the points of a chart series.
+	 * @param data is the data to summarize.
+	 * @param axis is {@link Statistics#X} or {@link Statistics#Y}.
+	 * @param metrics is the {@link Summary} metric flags, or'd together.
+	 * @return the summary.
+	 */
+	public static Summary summarize(ObservableList<XYChart.Data<Number, Number>> data,
+			int axis, int metrics) {
+		double[] values = new double[data.size()];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = component(data.get(i), axis);
+		}
+		return Summary.of(values, metrics);
+	}
+
+	/**
+	 * Unboxes the points into an x column and a y column.
+	 * @param data is the points.
+	 * @return the x column then the y column.
+	 */
+	private static double[][] columns(ObservableList<XYChart.Data<Number, Number>> data) {
+		double[][] array = new double[2][data.size()];
+		for (int i = 0; i < array[0].length; i++ ) {
+			array[0][i] = data.get(i).getXValue().doubleValue();
+			array[1][i] = data.get(i).getYValue().doubleValue();
+		}
+		return array;
+	}
+
+	/**
+	 * Unboxes one component of a point.
+	 * @param point is the point.
+	 * @param axis is {@link Statistics#X} or {@link Statistics#Y}.
+	 * @return the component.
+	 */
+	private static double component(XYChart.Data<Number, Number> point, int axis) {
+		switch (axis) {
+		case Statistics.X:
+			return point.getXValue().doubleValue();
+		case Statistics.Y:
+			return point.getYValue().doubleValue();
+		default:
+			throw new IllegalArgumentException("Unknown axis: " + axis);
+		}
+	}
+}
@@ -0,0 +1,228 @@
+package smallstatapp;
+
+import java.util.Arrays;
+
+/**
+ * A count-min sketch of how often values occur, with a short list of the
+ * most frequent values seen so far for an approximate mode. Each value is
+ * counted in one cell of every row; its estimate is the smallest of those
+ * cells, which can only overcount. Memory is fixed by the width and depth,
+ * and two sketches of the same shape merge by adding their cells.
+ * Values cannot be removed.
+ * @author Melinda Robertson
+ * @version 17 October 2026
+ */
+public class CountMinSketch {
+
+	/**
+	 * The number of rows. The overcount bound holds with probability
+	 * 1 - e^-DEPTH.
+	 */
+	private static final int DEPTH = 5;
+
+	/**
+	 * How many candidate modes are tracked.
+	 */
+	private static final int CANDIDATES = 16;
+
+	/**
+	 * Seeds the hash of each row.
+	 */
+	private static final long[] SEEDS = {
+		0x9e3779b97f4a7c15L, 0xbf58476d1ce4e5b9L, 0x94d049bb133111ebL,
+		0xd6e8feb86659fd93L, 0xc2b2ae3d27d4eb4fL
+	};
+
+	/**
+	 * The cells, row by row.
+	 */
+	private final long[] cells;
+
+	/**
+	 * The number of cells in a row. A power of two.
+	 */
+	private final int width;
+
+	/**
+	 * The number of values added.
+	 */
+	private long count;
+
+	/**
+	 * The values most likely to be the mode.
+	 */
+	private final double[] candidates = new double[CANDIDATES];
+
+	/**
+	 * The estimated count of each candidate.
+	 */
+	private final long[] candidateCounts = new long[CANDIDATES];
+
+	/**
+	 * The number of candidates in use.
+	 */
+	private int candidateSize;
+
+	/**
+	 * Creates an empty sketch.
+	 * @param width is the number of cells per row, rounded up to a power of
+	 * two; the overcount is at most e / width of the count.
+	 */
+	public CountMinSketch(int width) {
+		if (width < 1) throw new IllegalArgumentException("width must be positive: " + width);
+		int w = 1;
+		while (w < width) w <<= 1;
+		this.width = w;
+		cells = new long[DEPTH * w];
+	}
+
+	/**
+	 * Counts a value.
+	 * @param v is the value; NaN is ignored.
+	 */
+	public void add(double v) {
+		if (Double.isNaN(v)) return;
+		long bits = bits(v);
+		long estimate = Long.MAX_VALUE;
+		for (int r = 0; r < DEPTH; r++) {
+			int i = r * width + cell(bits, r);
+			estimate = Math.min(estimate, ++cells[i]);
+		}
+		count++;
+		offer(v, estimate);
+	}
+
+	/**
+	 * Adds every count of another sketch of the same width.
+	 * The other sketch is not changed.
+	 * @param other is the sketch to add.
+	 */
+	public void merge(CountMinSketch other) {
+		if (other.width != width) {
+			throw new IllegalArgumentException("Cannot merge sketches of width "
+					+ width + " and " + other.width);
+		}
+		for (int i = 0; i < cells.length; i++) {
+			cells[i] += other.cells[i];
+		}
+		count += other.count;
+		//Both lists are re-estimated against the merged cells.
+		for (int i = 0; i < candidateSize; i++) {
+			candidateCounts[i] = estimate(candidates[i]);
+		}
+		for (int i = 0; i < other.candidateSize; i++) {
+			offer(other.candidates[i], estimate(other.candidates[i]));
+		}
+	}
+
+	/**
+	 * Retrieve how often a value occurs. The estimate is never too low and
+	 * is too high by at most {@link #getError()} with high probability.
+	 * @param v is the value.
+	 * @return the estimated count.
+	 */
+	public long estimate(double v) {
+		long bits = bits(v);
+		long estimate = Long.MAX_VALUE;
+		for (int r = 0; r < DEPTH; r++) {
+			estimate = Math.min(estimate, cells[r * width + cell(bits, r)]);
+		}
+		return estimate;
+	}
+
+	/**
+	 * Retrieve the value that seems to occur most often. If several tie,
+	 * the largest is returned, as {@link FrequencyMap#mode()} does.
+	 * @return the approximate mode, or NaN if the sketch is empty.
+	 */
+	public double mode() {
+		if (candidateSize == 0) return Double.NaN;
+		int best = 0;
+		for (int i = 1; i < candidateSize; i++) {
+			if (candidateCounts[i] > candidateCounts[best]
+					|| (candidateCounts[i] == candidateCounts[best]
+					&& candidates[i] > candidates[best])) {
+				best = i;
+			}
+		}
+		return candidates[best];
+	}
+
+	/**
+	 * Retrieve the most a count can be too high, with probability
+	 * 1 - e^-5, about 99.3%.
+	 * @return the overcount bound, e / width of the count.
+	 */
+	public double getError() {
+		return Math.E * count / width;
+	}
+
+	/**
+	 * Retrieve the number of values added.
+	 * @return the count.
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * Forgets every value.
+	 */
+	public void clear() {
+		Arrays.fill(cells, 0);
+		count = 0;
+		candidateSize = 0;
+	}
+
+	/**
+	 * Updates the candidate list with a value's latest estimate. The value
+	 * replaces the least frequent candidate if it is more frequent.
+	 * @param v is the value.
+	 * @param estimate is its estimated count.
+	 */
+	private void offer(double v, long estimate) {
+		long bits = bits(v);
+		int least = -1;
+		for (int i = 0; i < candidateSize; i++) {
+			if (bits(candidates[i]) == bits) {
+				candidateCounts[i] = estimate;
+				return;
+			}
+			if (least < 0 || candidateCounts[i] < candidateCounts[least]) least = i;
+		}
+		if (candidateSize < CANDIDATES) {
+			candidates[candidateSize] = v;
+			candidateCounts[candidateSize] = estimate;
+			candidateSize++;
+		} else if (estimate > candidateCounts[least]) {
+			candidates[least] = v;
+			candidateCounts[least] = estimate;
+		}
+	}
+
+	/**
+	 * Finds the cell of a value in one row.
+	 * @param bits is the value's bits.
+	 * @param row is the row.
+	 * @return the column of the cell.
+	 */
+	private int cell(long bits, int row) {
+		long h = bits ^ SEEDS[row];
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return (int) h & (width - 1);
+	}
+
+	/**
+	 * Turns a value into the bits it is counted by. Negative zero is
+	 * counted with zero, as they compare equal.
+	 * @param v is the value.
+	 * @return the bits.
+	 */
+	private static long bits(double v) {
+		return Double.doubleToLongBits(v == 0 ? 0.0 : v);
+	}
+}
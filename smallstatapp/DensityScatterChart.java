@@ -0,0 +1,731 @@
+package smallstatapp;
+
+import java.text.NumberFormat;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.css.CssMetaData;
+import javafx.css.SimpleStyleableObjectProperty;
+import javafx.css.Styleable;
+import javafx.css.StyleableProperty;
+import javafx.css.StyleablePropertyFactory;
+import javafx.geometry.Point2D;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.chart.NumberAxis;
+import javafx.scene.chart.XYChart;
+import javafx.scene.control.Tooltip;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Line;
+import javafx.scene.shape.Rectangle;
+import metrics.Metrics;
+import metrics.Timer;
+
+/**
+ * A scatter chart that paints the points of a {@link PointStore} onto a
+ * single Canvas instead of making a scene graph node for each point. When
+ * there are more points than fit as separate markers, they are counted into
+ * one bin per pixel and the bins are painted as a density image, so a redraw
+ * costs about the same for a thousand points as for ten million.
+ * The axes, grid lines and plot background are the usual chart ones and
+ * take their style from the stylesheet; the point color comes from
+ * -fx-point-color. A fitted line can be laid over the points; it has the
+ * style class fit-line.
+ * <p>
+ * Dragging a rectangle zooms in to it, and the rectangle has the style
+ * class zoom-rect. Dragging with the other buttons pans, the wheel zooms
+ * around the cursor and a double click zooms back out. Hovering near a
+ * point shows its values. Once the chart is zoomed or hovered, a
+ * {@link PointQuadtree} finds the points in view or under the cursor, so
+ * only those are looked at.
+ * @author Melinda Robertson
+ * @version 17 October 2026
+ */
+public class DensityScatterChart extends XYChart<Number, Number> implements PointStore.Listener {
+
+	/**
+	 * Makes the styleable properties.
+	 */
+	private static final StyleablePropertyFactory<DensityScatterChart> FACTORY =
+			new StyleablePropertyFactory<DensityScatterChart>(XYChart.getClassCssMetaData());
+
+	/**
+	 * The style metadata for the point color.
+	 */
+	private static final CssMetaData<DensityScatterChart, Color> POINT_COLOR =
+			FACTORY.createColorCssMetaData("-fx-point-color", c -> c.pointColor,
+					Color.web("#f3622d"));
+
+	/**
+	 * Points up to this many are drawn as separate markers.
+	 */
+	private static final int MARKER_LIMIT = 10000;
+
+	/**
+	 * The width of a marker in pixels.
+	 */
+	private static final double MARKER_SIZE = 6;
+
+	/**
+	 * How far from a point the cursor may be to show it, in pixels.
+	 */
+	private static final double HOVER_RADIUS = 8;
+
+	/**
+	 * A drag smaller than this many pixels across is a click, not a zoom.
+	 */
+	private static final double MIN_DRAG = 4;
+
+	/**
+	 * How much one wheel notch zooms.
+	 */
+	private static final double ZOOM_STEP = 1.25;
+
+	/**
+	 * Times drawing the points.
+	 */
+	private static final Timer PAINT_TIMER = Metrics.timer("chart.paint");
+
+	/**
+	 * The points to draw.
+	 */
+	private final PointStore store;
+
+	/**
+	 * The surface the points are painted on.
+	 */
+	private final Canvas canvas;
+
+	/**
+	 * The fitted line drawn over the points.
+	 */
+	private final Line fitLine;
+
+	/**
+	 * The rectangle shown while dragging out a zoom.
+	 */
+	private final Rectangle zoomRect;
+
+	/**
+	 * Shows the values of the point under the cursor.
+	 */
+	private final Tooltip hover = new Tooltip();
+
+	/**
+	 * Formats the values in the hover text.
+	 */
+	private NumberFormat valueFormat = NumberFormat.getInstance();
+
+	/**
+	 * Finds points by position, or null until it is first needed.
+	 */
+	private PointQuadtree index;
+
+	/**
+	 * Where the current drag started or last moved to, in plot coordinates.
+	 */
+	private Point2D dragFrom;
+
+	/**
+	 * True if the current drag pans instead of zooming.
+	 */
+	private boolean panning;
+
+	/**
+	 * The slope of the fitted line, or NaN for no line.
+	 */
+	private double fitSlope = Double.NaN;
+
+	/**
+	 * The intercept of the fitted line, or NaN for no line.
+	 */
+	private double fitIntercept = Double.NaN;
+
+	/**
+	 * The color of the points.
+	 */
+	private final StyleableProperty<Color> pointColor;
+
+	/**
+	 * The number of points in each pixel, row by row.
+	 */
+	private int[] bins;
+
+	/**
+	 * The pixels of the density image, row by row.
+	 */
+	private int[] pixels;
+
+	/**
+	 * How many points from the start of the store are counted in the bins.
+	 * Points added later can be counted without starting over.
+	 */
+	private int binned;
+
+	/**
+	 * The largest count in any bin.
+	 */
+	private int maxBin;
+
+	/**
+	 * The plot size and axis bounds of the last paint:
+	 * width, height, x lower, x upper, y lower, y upper.
+	 */
+	private final double[] binnedView = new double[6];
+
+	/**
+	 * True if the canvas must be painted again.
+	 */
+	private boolean dirty = true;
+
+	/**
+	 * The smallest and largest x and y in the store: x min, x max, y min, y max.
+	 */
+	private final double[] bounds = new double[4];
+
+	/**
+	 * True if the bounds must be found again by scanning the store.
+	 */
+	private boolean boundsDirty = true;
+
+	/**
+	 * True if the axes are due to be re-ranged. Changes in one event, such
+	 * as a window dropping many points, share one re-range and bounds scan.
+	 */
+	private boolean rangePending;
+
+	/**
+	 * Creates a chart that shows a store.
+	 * @param xAxis is the x axis.
+	 * @param yAxis is the y axis.
+	 * @param store holds the points.
+	 */
+	public DensityScatterChart(NumberAxis xAxis, NumberAxis yAxis, PointStore store) {
+		super(xAxis, yAxis);
+		this.store = store;
+		pointColor = new SimpleStyleableObjectProperty<Color>(POINT_COLOR, this,
+				"pointColor", POINT_COLOR.getInitialValue(this));
+		canvas = new Canvas();
+		canvas.setManaged(false);
+		fitLine = new Line();
+		fitLine.getStyleClass().add("fit-line");
+		fitLine.setManaged(false);
+		fitLine.setVisible(false);
+		zoomRect = new Rectangle();
+		zoomRect.getStyleClass().add("zoom-rect");
+		zoomRect.setManaged(false);
+		zoomRect.setVisible(false);
+		getPlotChildren().addAll(canvas, fitLine, zoomRect);
+		getStyleClass().add("density-scatter-chart");
+		//The base class only lays out when it has a series list.
+		setData(FXCollections.<Series<Number, Number>>observableArrayList());
+		setAnimated(false);
+		store.addListener(this);
+		addEventHandler(MouseEvent.MOUSE_PRESSED, this::pressed);
+		addEventHandler(MouseEvent.MOUSE_DRAGGED, this::dragged);
+		addEventHandler(MouseEvent.MOUSE_RELEASED, this::released);
+		addEventHandler(MouseEvent.MOUSE_CLICKED, e -> {
+			if (e.getButton() == MouseButton.PRIMARY && e.getClickCount() == 2) resetZoom();
+		});
+		addEventHandler(MouseEvent.MOUSE_MOVED, this::moved);
+		addEventHandler(MouseEvent.MOUSE_EXITED, e -> hover.hide());
+		addEventHandler(ScrollEvent.SCROLL, this::scrolled);
+	}
+
+	/**
+	 * Retrieve the style metadata of this class.
+	 * @return the metadata, including that of XYChart.
+	 */
+	public static List<CssMetaData<? extends Styleable, ?>> getClassCssMetaData() {
+		return FACTORY.getCssMetaData();
+	}
+
+	/**
+	 * Retrieve the style metadata of this chart.
+	 * @return the metadata.
+	 */
+	@Override
+	public List<CssMetaData<? extends Styleable, ?>> getCssMetaData() {
+		return getClassCssMetaData();
+	}
+
+	/**
+	 * Retrieve the color of the points.
+	 * @return the point color.
+	 */
+	public Color getPointColor() {
+		return pointColor.getValue();
+	}
+
+	/**
+	 * Sets how the hover text formats a point's values. The chart keeps the
+	 * format and uses it on the JavaFX thread only.
+	 * @param format is the format.
+	 */
+	public void setValueFormat(NumberFormat format) {
+		valueFormat = format;
+	}
+
+	/**
+	 * Sets the line drawn over the points, y = intercept + slope * x.
+	 * Setting the same line again does not lay the chart out.
+	 * @param slope is the slope, or NaN to hide the line.
+	 * @param intercept is the intercept, or NaN to hide the line.
+	 */
+	public void setFitLine(double slope, double intercept) {
+		if (Double.compare(slope, fitSlope) == 0
+				&& Double.compare(intercept, fitIntercept) == 0) return;
+		fitSlope = slope;
+		fitIntercept = intercept;
+		requestChartLayout();
+	}
+
+	/**
+	 * Shows only part of the value range. The axes stop auto-ranging until
+	 * {@link #resetZoom()}.
+	 * @param x0 is one x bound.
+	 * @param x1 is the other x bound.
+	 * @param y0 is one y bound.
+	 * @param y1 is the other y bound.
+	 */
+	public void zoomTo(double x0, double x1, double y0, double y1) {
+		if (!(x0 != x1 && y0 != y1)) return;
+		recount();
+		setRange((NumberAxis) getXAxis(), Math.min(x0, x1), Math.max(x0, x1));
+		setRange((NumberAxis) getYAxis(), Math.min(y0, y1), Math.max(y0, y1));
+	}
+
+	/**
+	 * Goes back to showing every point.
+	 */
+	public void resetZoom() {
+		recount();
+		getXAxis().setAutoRanging(true);
+		getYAxis().setAutoRanging(true);
+		updateAxisRange();
+	}
+
+	/**
+	 * Makes the next paint clear the bins and count every point again. A
+	 * new view maps points to other pixels, so none of the old counts hold.
+	 */
+	private void recount() {
+		binned = 0;
+		dirty = true;
+		requestChartLayout();
+	}
+
+	//------------------MOUSE--------------------
+
+	/**
+	 * Starts a zoom or pan drag inside the plot.
+	 * @param e is the press.
+	 */
+	private void pressed(MouseEvent e) {
+		Point2D p = plotPosition(e);
+		dragFrom = inPlot(p) ? p : null;
+		panning = e.getButton() != MouseButton.PRIMARY;
+		hover.hide();
+	}
+
+	/**
+	 * Pans the view, or stretches the zoom rectangle.
+	 * @param e is the drag.
+	 */
+	private void dragged(MouseEvent e) {
+		if (dragFrom == null) return;
+		Point2D p = plotPosition(e);
+		NumberAxis xa = (NumberAxis) getXAxis();
+		NumberAxis ya = (NumberAxis) getYAxis();
+		if (panning) {
+			double dx = valueAt(xa, dragFrom.getX()) - valueAt(xa, p.getX());
+			double dy = valueAt(ya, dragFrom.getY()) - valueAt(ya, p.getY());
+			zoomTo(xa.getLowerBound() + dx, xa.getUpperBound() + dx,
+					ya.getLowerBound() + dy, ya.getUpperBound() + dy);
+			dragFrom = p;
+			return;
+		}
+		double px = clamp(p.getX(), canvas.getWidth());
+		double py = clamp(p.getY(), canvas.getHeight());
+		zoomRect.setX(Math.min(px, dragFrom.getX()));
+		zoomRect.setY(Math.min(py, dragFrom.getY()));
+		zoomRect.setWidth(Math.abs(px - dragFrom.getX()));
+		zoomRect.setHeight(Math.abs(py - dragFrom.getY()));
+		zoomRect.setVisible(true);
+	}
+
+	/**
+	 * Zooms in to the dragged rectangle, if it is big enough.
+	 * @param e is the release.
+	 */
+	private void released(MouseEvent e) {
+		if (dragFrom != null && zoomRect.isVisible()) {
+			zoomRect.setVisible(false);
+			if (zoomRect.getWidth() >= MIN_DRAG && zoomRect.getHeight() >= MIN_DRAG) {
+				NumberAxis xa = (NumberAxis) getXAxis();
+				NumberAxis ya = (NumberAxis) getYAxis();
+				zoomTo(valueAt(xa, zoomRect.getX()),
+						valueAt(xa, zoomRect.getX() + zoomRect.getWidth()),
+						valueAt(ya, zoomRect.getY()),
+						valueAt(ya, zoomRect.getY() + zoomRect.getHeight()));
+			}
+		}
+		dragFrom = null;
+	}
+
+	/**
+	 * Zooms around the cursor by one step per wheel notch.
+	 * @param e is the scroll.
+	 */
+	private void scrolled(ScrollEvent e) {
+		Point2D p = canvas.sceneToLocal(e.getSceneX(), e.getSceneY());
+		if (!inPlot(p) || e.getDeltaY() == 0) return;
+		double f = Math.pow(ZOOM_STEP, -Math.signum(e.getDeltaY()));
+		NumberAxis xa = (NumberAxis) getXAxis();
+		NumberAxis ya = (NumberAxis) getYAxis();
+		double vx = valueAt(xa, p.getX());
+		double vy = valueAt(ya, p.getY());
+		zoomTo(vx - (vx - xa.getLowerBound()) * f, vx + (xa.getUpperBound() - vx) * f,
+				vy - (vy - ya.getLowerBound()) * f, vy + (ya.getUpperBound() - vy) * f);
+		e.consume();
+	}
+
+	/**
+	 * Shows the values of the point nearest the cursor, if one is close.
+	 * @param e is the move.
+	 */
+	private void moved(MouseEvent e) {
+		Point2D p = plotPosition(e);
+		if (!inPlot(p) || store.size() == 0) {
+			hover.hide();
+			return;
+		}
+		NumberAxis xa = (NumberAxis) getXAxis();
+		NumberAxis ya = (NumberAxis) getYAxis();
+		int i = index().nearest(valueAt(xa, p.getX()), valueAt(ya, p.getY()),
+				xa.getScale(), ya.getScale(), HOVER_RADIUS);
+		if (i < 0) {
+			hover.hide();
+			return;
+		}
+		hover.setText("(" + valueFormat.format(store.getX(i)) + ", "
+				+ valueFormat.format(store.getY(i)) + ")");
+		hover.show(this, e.getScreenX() + 12, e.getScreenY() + 12);
+	}
+
+	/**
+	 * Finds where an event happened in plot coordinates, which are the ones
+	 * the axes' display positions use.
+	 * @param e is the event.
+	 * @return the position.
+	 */
+	private Point2D plotPosition(MouseEvent e) {
+		return canvas.sceneToLocal(e.getSceneX(), e.getSceneY());
+	}
+
+	/**
+	 * Checks whether a position is over the plot.
+	 * @param p is the position in plot coordinates.
+	 * @return true if it is inside the painted area.
+	 */
+	private boolean inPlot(Point2D p) {
+		return p.getX() >= 0 && p.getX() <= canvas.getWidth()
+				&& p.getY() >= 0 && p.getY() <= canvas.getHeight();
+	}
+
+	/**
+	 * Retrieve the position index, building it on first use.
+	 * @return the index.
+	 */
+	private PointQuadtree index() {
+		if (index == null) index = new PointQuadtree(store);
+		return index;
+	}
+
+	/**
+	 * Finds the value at a display position on an axis.
+	 * @param axis is the axis.
+	 * @param display is the position in plot coordinates.
+	 * @return the value.
+	 */
+	private static double valueAt(NumberAxis axis, double display) {
+		return axis.getValueForDisplay(display).doubleValue();
+	}
+
+	/**
+	 * Fixes an axis to a range with about ten ticks.
+	 * @param axis is the axis.
+	 * @param lower is the lower bound.
+	 * @param upper is the upper bound.
+	 */
+	private static void setRange(NumberAxis axis, double lower, double upper) {
+		axis.setAutoRanging(false);
+		axis.setLowerBound(lower);
+		axis.setUpperBound(upper);
+		//Round the tick spacing to 1, 2 or 5 times a power of ten.
+		double raw = (upper - lower) / 10;
+		double magnitude = Math.pow(10, Math.floor(Math.log10(raw)));
+		double r = raw / magnitude;
+		axis.setTickUnit((r < 2 ? 1 : r < 5 ? 2 : 5) * magnitude);
+	}
+
+	/**
+	 * Keeps a position between zero and a limit.
+	 * @param v is the position.
+	 * @param max is the limit.
+	 * @return the kept position.
+	 */
+	private static double clamp(double v, double max) {
+		return Math.max(0, Math.min(v, max));
+	}
+
+	//------------------PAINTING--------------------
+
+	/**
+	 * Marks the drawing out of date after the store changes. Appended points
+	 * inside the current bounds are counted into the existing bins later.
+	 */
+	@Override
+	public void pointsChanged(PointStore source, int type, int from, int to) {
+		if (type == PointStore.ADDED && !boundsDirty) {
+			boolean inside = from > 0;
+			double[] x = store.xColumn();
+			double[] y = store.yColumn();
+			for (int i = from; i < to; i++) {
+				if (x[i] < bounds[0]) { bounds[0] = x[i]; inside = false; }
+				if (x[i] > bounds[1]) { bounds[1] = x[i]; inside = false; }
+				if (y[i] < bounds[2]) { bounds[2] = y[i]; inside = false; }
+				if (y[i] > bounds[3]) { bounds[3] = y[i]; inside = false; }
+			}
+			if (inside) {
+				dirty = true;
+				requestChartLayout();
+				return;
+			}
+			//The bounds grew, so the axes may move; count every point again.
+			binned = 0;
+		} else {
+			boundsDirty = true;
+			binned = 0;
+		}
+		dirty = true;
+		if (!rangePending) {
+			rangePending = true;
+			Platform.runLater(() -> {
+				rangePending = false;
+				updateAxisRange();
+			});
+		}
+		requestChartLayout();
+	}
+
+	/**
+	 * Sets auto-ranging axes to cover every point in the store.
+	 */
+	@Override
+	protected void updateAxisRange() {
+		if (store.size() == 0) return;
+		findBounds();
+		if (getXAxis().isAutoRanging()) {
+			getXAxis().invalidateRange(Arrays.<Number>asList(bounds[0], bounds[1]));
+		}
+		if (getYAxis().isAutoRanging()) {
+			getYAxis().invalidateRange(Arrays.<Number>asList(bounds[2], bounds[3]));
+		}
+	}
+
+	/**
+	 * Paints the points if anything changed since the last paint.
+	 */
+	@Override
+	protected void layoutPlotChildren() {
+		Timer.Sample sample = PAINT_TIMER.start();
+		try {
+			NumberAxis xa = (NumberAxis) getXAxis();
+			NumberAxis ya = (NumberAxis) getYAxis();
+			double w = Math.floor(xa.getWidth());
+			double h = Math.floor(ya.getHeight());
+			double[] view = {w, h, xa.getLowerBound(), xa.getUpperBound(),
+					ya.getLowerBound(), ya.getUpperBound()};
+			layoutFitLine(xa, ya, view);
+			boolean moved = !Arrays.equals(view, binnedView);
+			if (!dirty && !moved) return;
+			dirty = false;
+			System.arraycopy(view, 0, binnedView, 0, view.length);
+
+			canvas.setWidth(w);
+			canvas.setHeight(h);
+			GraphicsContext gc = canvas.getGraphicsContext2D();
+			gc.clearRect(0, 0, w, h);
+			int n = store.size();
+			if (n == 0 || w < 1 || h < 1) {
+				binned = 0;
+				return;
+			}
+
+			//Axis positions are linear, so map values with two reference points.
+			double x0 = xa.getDisplayPosition(view[2]);
+			double xScale = (xa.getDisplayPosition(view[3]) - x0) / (view[3] - view[2]);
+			double y0 = ya.getDisplayPosition(view[4]);
+			double yScale = (ya.getDisplayPosition(view[5]) - y0) / (view[5] - view[4]);
+			double[] x = store.xColumn();
+			double[] y = store.yColumn();
+
+			//When zoomed in, the index finds the points in view; zoomed in far
+			//enough, dense data thins out to separate markers.
+			boolean whole = showsAll(view);
+			int visible = whole ? n : index().count(view[2], view[3], view[4], view[5]);
+			if (visible <= Math.min(MARKER_LIMIT, w * h)) {
+				binned = 0;
+				gc.setFill(getPointColor());
+				double r = MARKER_SIZE / 2;
+				IntConsumer mark = i -> gc.fillOval(x0 + (x[i] - view[2]) * xScale - r,
+						y0 + (y[i] - view[4]) * yScale - r, MARKER_SIZE, MARKER_SIZE);
+				if (whole) {
+					for (int i = 0; i < n; i++) mark.accept(i);
+				} else {
+					index().forEach(view[2], view[3], view[4], view[5], mark);
+				}
+				return;
+			}
+
+			int width = (int) w;
+			int height = (int) h;
+			if (bins == null || bins.length != width * height) {
+				bins = new int[width * height];
+				pixels = new int[width * height];
+				binned = 0;
+			}
+			IntConsumer count = i -> {
+				int px = (int) (x0 + (x[i] - view[2]) * xScale);
+				int py = (int) (y0 + (y[i] - view[4]) * yScale);
+				if (px >= 0 && px < width && py >= 0 && py < height) {
+					int c = ++bins[py * width + px];
+					if (c > maxBin) maxBin = c;
+				}
+			};
+			if (moved || binned == 0) {
+				Arrays.fill(bins, 0);
+				maxBin = 0;
+				binned = 0;
+				if (!whole) {
+					index().forEach(view[2], view[3], view[4], view[5], count);
+					binned = n;
+				}
+			}
+			//Points appended since the last paint are counted on their own.
+			for (int i = binned; i < n; i++) {
+				count.accept(i);
+			}
+			binned = n;
+			paintBins(gc, width, height);
+		} finally {
+			sample.stop();
+		}
+	}
+
+	/**
+	 * Places the fitted line across the visible x range. The plot area clips
+	 * whatever falls outside the y range. Cheap enough to run on every layout.
+	 * @param xa is the x axis.
+	 * @param ya is the y axis.
+	 * @param view is the plot size and axis bounds.
+	 */
+	private void layoutFitLine(NumberAxis xa, NumberAxis ya, double[] view) {
+		boolean show = store.size() > 1 && Double.isFinite(fitSlope)
+				&& Double.isFinite(fitIntercept);
+		fitLine.setVisible(show);
+		if (!show) return;
+		fitLine.setStartX(xa.getDisplayPosition(view[2]));
+		fitLine.setStartY(ya.getDisplayPosition(fitIntercept + fitSlope * view[2]));
+		fitLine.setEndX(xa.getDisplayPosition(view[3]));
+		fitLine.setEndY(ya.getDisplayPosition(fitIntercept + fitSlope * view[3]));
+	}
+
+	/**
+	 * Turns the bins into pixels. A pixel's opacity grows with the log of its
+	 * count, so single points stay visible next to dense clusters.
+	 * @param gc is the canvas to paint.
+	 * @param width is the width in pixels.
+	 * @param height is the height in pixels.
+	 */
+	private void paintBins(GraphicsContext gc, int width, int height) {
+		Color c = getPointColor();
+		int rgb = ((int) (c.getRed() * 255) << 16) | ((int) (c.getGreen() * 255) << 8)
+				| (int) (c.getBlue() * 255);
+		double scale = 1 / Math.log1p(Math.max(maxBin, 1));
+		for (int i = 0; i < bins.length; i++) {
+			if (bins[i] == 0) {
+				pixels[i] = 0;
+			} else {
+				int alpha = 64 + (int) (191 * Math.log1p(bins[i]) * scale);
+				pixels[i] = (alpha << 24) | rgb;
+			}
+		}
+		gc.getPixelWriter().setPixels(0, 0, width, height,
+				PixelFormat.getIntArgbInstance(), pixels, 0, width);
+	}
+
+	/**
+	 * Checks whether a view takes in every point.
+	 * @param view is the plot size and axis bounds.
+	 * @return true if the axis bounds cover the store's bounds.
+	 */
+	private boolean showsAll(double[] view) {
+		findBounds();
+		return view[2] <= bounds[0] && view[3] >= bounds[1]
+				&& view[4] <= bounds[2] && view[5] >= bounds[3];
+	}
+
+	/**
+	 * Scans the store for its bounds if they are out of date.
+	 */
+	private void findBounds() {
+		if (!boundsDirty) return;
+		MomentKernels.summarize(store.xColumn(), store.yColumn(), 0, store.size(), bounds);
+		boundsDirty = false;
+	}
+
+	/**
+	 * Not used; the points come from the store.
+	 */
+	@Override
+	protected void dataItemAdded(Series<Number, Number> series, int itemIndex,
+			Data<Number, Number> item) {
+	}
+
+	/**
+	 * Not used; the points come from the store.
+	 */
+	@Override
+	protected void dataItemRemoved(Data<Number, Number> item, Series<Number, Number> series) {
+	}
+
+	/**
+	 * Not used; the points come from the store.
+	 */
+	@Override
+	protected void dataItemChanged(Data<Number, Number> item) {
+	}
+
+	/**
+	 * Not used; the points come from the store.
+	 */
+	@Override
+	protected void seriesAdded(Series<Number, Number> series, int seriesIndex) {
+	}
+
+	/**
+	 * Not used; the points come from the store.
+	 */
+	@Override
+	protected void seriesRemoved(Series<Number, Number> series) {
+	}
+}
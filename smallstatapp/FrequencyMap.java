@@ -0,0 +1,282 @@
+package smallstatapp;
+
+import java.util.Arrays;
+
+/**
+ * Counts how often each double value occurs, without boxing. Values are kept
+ * in an open-addressing table with linear probing, and the highest count is
+ * tracked as values are added and removed so the mode is ready at any time.
+ * @author Melinda Robertson
+ * @version 17 October 2026
+ */
+public class FrequencyMap {
+
+	/**
+	 * The starting number of slots. Must be a power of two.
+	 */
+	private static final int DEFAULT_CAPACITY = 16;
+
+	/**
+	 * The table grows once it is this full.
+	 */
+	private static final double LOAD_FACTOR = 0.5;
+
+	/**
+	 * The bits of each stored value.
+	 */
+	private long[] keys;
+
+	/**
+	 * The count for each slot. Zero marks an empty slot.
+	 */
+	private int[] counts;
+
+	/**
+	 * The number of distinct values stored.
+	 */
+	private int size;
+
+	/**
+	 * How many distinct values have each count. Entry c is the number of
+	 * values that occur exactly c times.
+	 */
+	private int[] countOfCounts;
+
+	/**
+	 * The highest count of any value.
+	 */
+	private int maxCount;
+
+	/**
+	 * The largest value with the highest count, when modeValid is set.
+	 */
+	private double mode;
+
+	/**
+	 * True if mode is up to date.
+	 */
+	private boolean modeValid;
+
+	/**
+	 * Creates an empty map.
+	 */
+	public FrequencyMap() {
+		keys = new long[DEFAULT_CAPACITY];
+		counts = new int[DEFAULT_CAPACITY];
+		countOfCounts = new int[DEFAULT_CAPACITY];
+	}
+
+	/**
+	 * Adds one occurrence of a value.
+	 * @param v is the value.
+	 */
+	public void increment(double v) {
+		if (size + 1 > keys.length * LOAD_FACTOR) {
+			rehash(keys.length * 2);
+		}
+		long bits = bits(v);
+		int i = slot(bits);
+		while (counts[i] != 0 && keys[i] != bits) {
+			i = (i + 1) & (keys.length - 1);
+		}
+		if (counts[i] == 0) {
+			keys[i] = bits;
+			size++;
+		} else {
+			countOfCounts[counts[i]]--;
+		}
+		int c = ++counts[i];
+		if (c == countOfCounts.length) {
+			countOfCounts = Arrays.copyOf(countOfCounts, c * 2);
+		}
+		countOfCounts[c]++;
+
+		if (c > maxCount) {
+			maxCount = c;
+			mode = Double.longBitsToDouble(bits);
+			modeValid = true;
+		} else if (c == maxCount && modeValid) {
+			mode = Math.max(mode, Double.longBitsToDouble(bits));
+		}
+	}
+
+	/**
+	 * Removes one occurrence of a value.
+	 * @param v is the value.
+	 * @return true if the value was in the map.
+	 */
+	public boolean decrement(double v) {
+		long bits = bits(v);
+		int i = find(bits);
+		if (i < 0) return false;
+
+		int c = counts[i];
+		countOfCounts[c]--;
+		if (c > 1) countOfCounts[c - 1]++;
+		if (c == maxCount && countOfCounts[c] == 0) maxCount--;
+		if (c == maxCount + 1 || Double.longBitsToDouble(bits) == mode) {
+			modeValid = false;
+		}
+
+		if (c > 1) {
+			counts[i] = c - 1;
+		} else {
+			delete(i);
+		}
+		return true;
+	}
+
+	/**
+	 * Removes every value.
+	 */
+	public void clear() {
+		Arrays.fill(counts, 0);
+		Arrays.fill(countOfCounts, 0);
+		size = 0;
+		maxCount = 0;
+		modeValid = false;
+	}
+
+	/**
+	 * Retrieve how often a value occurs.
+	 * @param v is the value.
+	 * @return the count, or zero if it does not occur.
+	 */
+	public int count(double v) {
+		int i = find(bits(v));
+		return i < 0 ? 0 : counts[i];
+	}
+
+	/**
+	 * Retrieve the number of distinct values.
+	 * @return the size.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Retrieve the highest count of any value.
+	 * @return the count of the mode.
+	 */
+	public int maxCount() {
+		return maxCount;
+	}
+
+	/**
+	 * Retrieve the most frequent value. If several values tie,
+	 * the largest of them is returned.
+	 * @return the mode, or NaN if the map is empty.
+	 */
+	public double mode() {
+		if (size == 0) return Double.NaN;
+		if (!modeValid) {
+			mode = Double.NEGATIVE_INFINITY;
+			for (int i = 0; i < counts.length; i++) {
+				if (counts[i] == maxCount) {
+					mode = Math.max(mode, Double.longBitsToDouble(keys[i]));
+				}
+			}
+			modeValid = true;
+		}
+		return mode;
+	}
+
+	/**
+	 * Retrieve every value that has the highest count.
+	 * @return the modes in ascending order, empty if the map is empty.
+	 */
+	public double[] modes() {
+		if (size == 0) return new double[0];
+		double[] result = new double[countOfCounts[maxCount]];
+		int n = 0;
+		for (int i = 0; i < counts.length; i++) {
+			if (counts[i] == maxCount) {
+				result[n++] = Double.longBitsToDouble(keys[i]);
+			}
+		}
+		Arrays.sort(result);
+		return result;
+	}
+
+	/**
+	 * Finds the slot holding a value.
+	 * @param bits is the value's bits.
+	 * @return the slot, or -1 if the value is not stored.
+	 */
+	private int find(long bits) {
+		int i = slot(bits);
+		while (counts[i] != 0) {
+			if (keys[i] == bits) return i;
+			i = (i + 1) & (keys.length - 1);
+		}
+		return -1;
+	}
+
+	/**
+	 * Empties a slot and shifts later entries of the same probe run back,
+	 * so lookups never need to step over a deleted marker.
+	 * @param hole is the slot to empty.
+	 */
+	private void delete(int hole) {
+		int mask = keys.length - 1;
+		counts[hole] = 0;
+		size--;
+		int i = (hole + 1) & mask;
+		while (counts[i] != 0) {
+			int home = slot(keys[i]);
+			//Move the entry if the hole lies between its home slot and i.
+			if (((i - home) & mask) >= ((i - hole) & mask)) {
+				keys[hole] = keys[i];
+				counts[hole] = counts[i];
+				counts[i] = 0;
+				hole = i;
+			}
+			i = (i + 1) & mask;
+		}
+	}
+
+	/**
+	 * Moves every entry into a table of a new size.
+	 * @param capacity is the new number of slots, a power of two.
+	 */
+	private void rehash(int capacity) {
+		long[] oldKeys = keys;
+		int[] oldCounts = counts;
+		keys = new long[capacity];
+		counts = new int[capacity];
+		for (int j = 0; j < oldKeys.length; j++) {
+			if (oldCounts[j] != 0) {
+				int i = slot(oldKeys[j]);
+				while (counts[i] != 0) {
+					i = (i + 1) & (capacity - 1);
+				}
+				keys[i] = oldKeys[j];
+				counts[i] = oldCounts[j];
+			}
+		}
+	}
+
+	/**
+	 * Finds the home slot of a value.
+	 * @param bits is the value's bits.
+	 * @return the first slot to probe.
+	 */
+	private int slot(long bits) {
+		//Mix the bits so nearby doubles spread across the table.
+		bits ^= bits >>> 33;
+		bits *= 0xff51afd7ed558ccdL;
+		bits ^= bits >>> 33;
+		return (int) bits & (keys.length - 1);
+	}
+
+	/**
+	 * Turns a value into the bits used as its key. Negative zero is
+	 * counted with zero, as they compare equal.
+	 * @param v is the value.
+	 * @return the key bits.
+	 */
+	private static long bits(double v) {
+		return Double.doubleToLongBits(v == 0 ? 0.0 : v);
+	}
+}
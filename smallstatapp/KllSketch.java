@@ -0,0 +1,363 @@
+package smallstatapp;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * A KLL quantile sketch: answers quantile queries over any number of values
+ * while keeping only a few hundred of them. Values enter level 0; when a
+ * level fills it is sorted and every other value, starting at a random
+ * offset, moves up a level with twice the weight. Higher levels get the
+ * larger buffers, so memory stays near 3k values however many are added.
+ * Two sketches with the same k merge into one that summarizes both.
+ * Values cannot be removed.
+ * @author Melinda Robertson
+ * @version 17 October 2026
+ */
+public class KllSketch {
+
+	/**
+	 * The value of k that gives about 1.3% rank error.
+	 */
+	public static final int DEFAULT_K = 200;
+
+	/**
+	 * The smallest buffer any level gets.
+	 */
+	private static final int MIN_CAPACITY = 8;
+
+	/**
+	 * How much smaller each level's buffer is than the one above it.
+	 */
+	private static final double SHRINK = 2.0 / 3.0;
+
+	/**
+	 * Controls the size of the top level, and so the accuracy.
+	 */
+	private final int k;
+
+	/**
+	 * The values kept on each level. Values on level h stand for 2^h values.
+	 */
+	private double[][] levels = new double[1][];
+
+	/**
+	 * The number of values kept on each level.
+	 */
+	private int[] sizes = new int[1];
+
+	/**
+	 * The buffer size of each level. Only changes when a level is added.
+	 */
+	private int[] capacities;
+
+	/**
+	 * The number of values every level together may keep.
+	 */
+	private int totalCapacity;
+
+	/**
+	 * The number of values added.
+	 */
+	private long count;
+
+	/**
+	 * The smallest value added.
+	 */
+	private double min = Double.NaN;
+
+	/**
+	 * The largest value added.
+	 */
+	private double max = Double.NaN;
+
+	/**
+	 * Chooses which half of a level moves up.
+	 */
+	private final SplittableRandom random = new SplittableRandom(1);
+
+	/**
+	 * The kept values in ascending order, for queries.
+	 */
+	private double[] sortedValues = new double[0];
+
+	/**
+	 * The total weight of the values up to and including each sorted value.
+	 */
+	private long[] cumulative = new long[0];
+
+	/**
+	 * The number of values in sortedValues and cumulative.
+	 */
+	private int sortedSize;
+
+	/**
+	 * Each level's values sorted, one after another, for merging.
+	 */
+	private double[] runs = new double[0];
+
+	/**
+	 * True if sortedValues and cumulative match the levels.
+	 */
+	private boolean sortedValid;
+
+	/**
+	 * Creates an empty sketch.
+	 * @param k controls the accuracy; the rank error shrinks about as 1/k.
+	 */
+	public KllSketch(int k) {
+		if (k < MIN_CAPACITY) {
+			throw new IllegalArgumentException("k must be at least " + MIN_CAPACITY + ": " + k);
+		}
+		this.k = k;
+		updateCapacities();
+		levels[0] = new double[capacity(0)];
+	}
+
+	/**
+	 * Adds a value.
+	 * @param v is the value; NaN is ignored.
+	 */
+	public void add(double v) {
+		if (Double.isNaN(v)) return;
+		if (count == 0) {
+			min = max = v;
+		} else {
+			if (v < min) min = v;
+			if (v > max) max = v;
+		}
+		count++;
+		append(0, v);
+		compress();
+		sortedValid = false;
+	}
+
+	/**
+	 * Adds every value summarized by another sketch with the same k.
+	 * The other sketch is not changed.
+	 * @param other is the sketch to add.
+	 */
+	public void merge(KllSketch other) {
+		if (other.k != k) {
+			throw new IllegalArgumentException("Cannot merge sketches of k "
+					+ k + " and " + other.k);
+		}
+		if (other.count == 0) return;
+		if (count == 0) {
+			min = other.min;
+			max = other.max;
+		} else {
+			min = Math.min(min, other.min);
+			max = Math.max(max, other.max);
+		}
+		count += other.count;
+		for (int h = 0; h < other.levels.length; h++) {
+			for (int i = 0; i < other.sizes[h]; i++) {
+				append(h, other.levels[h][i]);
+			}
+		}
+		compress();
+		sortedValid = false;
+	}
+
+	/**
+	 * Retrieve an approximate quantile. The true rank of the result is
+	 * within {@link #getRankError()} of p with high probability.
+	 * @param p is the fraction of values at or below the result, from 0 to 1.
+	 * @return the quantile, or NaN if the sketch is empty.
+	 */
+	public double quantile(double p) {
+		if (p < 0 || p > 1 || Double.isNaN(p)) {
+			throw new IllegalArgumentException("p must be between 0 and 1: " + p);
+		}
+		if (count == 0) return Double.NaN;
+		if (p == 0) return min;
+		if (p == 1) return max;
+		ensureSorted();
+		long target = (long) Math.ceil(p * count);
+		int i = Arrays.binarySearch(cumulative, 0, sortedSize, target);
+		if (i < 0) i = -i - 1;
+		return sortedValues[Math.min(i, sortedSize - 1)];
+	}
+
+	/**
+	 * Retrieve the approximate fraction of values at or below a value.
+	 * @param v is the value.
+	 * @return the rank from 0 to 1, or NaN if the sketch is empty.
+	 */
+	public double rank(double v) {
+		if (count == 0) return Double.NaN;
+		ensureSorted();
+		int i = 0;
+		while (i < sortedSize && sortedValues[i] <= v) i++;
+		return i == 0 ? 0 : (double) cumulative[i - 1] / count;
+	}
+
+	/**
+	 * Retrieve the error of a quantile as a fraction of the count. This is
+	 * the bound published for KLL at 99% confidence, 2.296 / k^0.9723.
+	 * @return the rank error, about 0.013 for k = 200.
+	 */
+	public double getRankError() {
+		return 2.296 / Math.pow(k, 0.9723);
+	}
+
+	/**
+	 * Retrieve the number of values added.
+	 * @return the count.
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * Retrieve the number of values the sketch keeps.
+	 * @return the number retained, which stays near 3k.
+	 */
+	public int getRetained() {
+		int n = 0;
+		for (int s : sizes) n += s;
+		return n;
+	}
+
+	/**
+	 * Retrieve the smallest value added, which is kept exactly.
+	 * @return the minimum, or NaN if the sketch is empty.
+	 */
+	public double min() {
+		return min;
+	}
+
+	/**
+	 * Retrieve the largest value added, which is kept exactly.
+	 * @return the maximum, or NaN if the sketch is empty.
+	 */
+	public double max() {
+		return max;
+	}
+
+	/**
+	 * Forgets every value.
+	 */
+	public void clear() {
+		levels = new double[1][];
+		sizes = new int[1];
+		updateCapacities();
+		levels[0] = new double[capacity(0)];
+		count = 0;
+		min = max = Double.NaN;
+		sortedValid = false;
+	}
+
+	/**
+	 * Puts a value on a level, adding the level and growing its buffer as
+	 * needed. The buffer may briefly hold more than its capacity.
+	 * @param h is the level.
+	 * @param v is the value.
+	 */
+	private void append(int h, double v) {
+		if (h >= levels.length) {
+			levels = Arrays.copyOf(levels, h + 1);
+			sizes = Arrays.copyOf(sizes, h + 1);
+			updateCapacities();
+			levels[h] = new double[capacity(h)];
+		}
+		if (sizes[h] == levels[h].length) {
+			levels[h] = Arrays.copyOf(levels[h], Math.max(2 * sizes[h], MIN_CAPACITY));
+		}
+		levels[h][sizes[h]++] = v;
+	}
+
+	/**
+	 * Compacts full levels, lowest first, until the sketch is within its
+	 * total capacity.
+	 */
+	private void compress() {
+		while (getRetained() > totalCapacity) {
+			int h = 0;
+			while (sizes[h] < capacity(h)) h++;
+			compact(h);
+		}
+	}
+
+	/**
+	 * Sorts a level and moves every other value up. An odd value out stays.
+	 * @param h is the level to compact.
+	 */
+	private void compact(int h) {
+		double[] level = levels[h];
+		int n = sizes[h];
+		int keep = n & 1;
+		//Leave the odd value at the front so the pairs after it are compacted.
+		Arrays.sort(level, keep, n);
+		int offset = random.nextBoolean() ? 1 : 0;
+		for (int i = keep + offset; i < n; i += 2) {
+			append(h + 1, level[i]);
+		}
+		sizes[h] = keep;
+	}
+
+	/**
+	 * Retrieve the buffer size of a level.
+	 * @param h is the level.
+	 * @return the capacity.
+	 */
+	private int capacity(int h) {
+		return capacities[h];
+	}
+
+	/**
+	 * Works out the buffer size of every level after the number of levels
+	 * changes. The top level gets k and each level below it two thirds of
+	 * the one above.
+	 */
+	private void updateCapacities() {
+		capacities = new int[levels.length];
+		totalCapacity = 0;
+		for (int h = 0; h < levels.length; h++) {
+			int depth = levels.length - 1 - h;
+			capacities[h] = Math.max(MIN_CAPACITY, (int) Math.ceil(k * Math.pow(SHRINK, depth)));
+			totalCapacity += capacities[h];
+		}
+	}
+
+	/**
+	 * Sorts the kept values with their weights if they changed. Each level
+	 * is copied and sorted on its own, leaving the levels as compaction
+	 * left them, and the sorted copies are merged by taking the smallest
+	 * head each time. There are only a few levels, so the merge stays cheap.
+	 */
+	private void ensureSorted() {
+		if (sortedValid) return;
+		int n = getRetained();
+		if (sortedValues.length < n) {
+			sortedValues = new double[n];
+			cumulative = new long[n];
+			runs = new double[n];
+		}
+		int[] next = new int[levels.length];
+		int[] ends = new int[levels.length];
+		int at = 0;
+		for (int h = 0; h < levels.length; h++) {
+			System.arraycopy(levels[h], 0, runs, at, sizes[h]);
+			next[h] = at;
+			at += sizes[h];
+			ends[h] = at;
+			Arrays.sort(runs, next[h], at);
+		}
+		long total = 0;
+		for (int i = 0; i < n; i++) {
+			int low = -1;
+			for (int h = 0; h < levels.length; h++) {
+				if (next[h] < ends[h] && (low < 0 || runs[next[h]] < runs[next[low]])) {
+					low = h;
+				}
+			}
+			sortedValues[i] = runs[next[low]++];
+			total += 1L << low;
+			cumulative[i] = total;
+		}
+		sortedSize = n;
+		sortedValid = true;
+	}
+}
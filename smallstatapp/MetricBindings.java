@@ -0,0 +1,320 @@
+package smallstatapp;
+
+import java.text.NumberFormat;
+
+/**
+ * The calcBox values of one Statistics, each formatted only when it is
+ * asked for and then remembered until an edit touches what it depends on.
+ * Every value is one bit of an int mask. An edit marks out of date only the
+ * values of the axis it changed and the paired values, so changing an x
+ * cell leaves the y median and mode as they were.
+ * @author Melinda Robertson
+ * @version 17 October 2026
+ */
+public class MetricBindings {
+
+	/**
+	 * The slot of the x mean.
+	 */
+	public static final int X_MEAN = 0;
+
+	/**
+	 * The slot of the y mean.
+	 */
+	public static final int Y_MEAN = 1;
+
+	/**
+	 * The slot of the x median.
+	 */
+	public static final int X_MEDIAN = 2;
+
+	/**
+	 * The slot of the y median.
+	 */
+	public static final int Y_MEDIAN = 3;
+
+	/**
+	 * The slot of the x mode.
+	 */
+	public static final int X_MODE = 4;
+
+	/**
+	 * The slot of the y mode.
+	 */
+	public static final int Y_MODE = 5;
+
+	/**
+	 * The slot of the x range.
+	 */
+	public static final int X_RANGE = 6;
+
+	/**
+	 * The slot of the y range.
+	 */
+	public static final int Y_RANGE = 7;
+
+	/**
+	 * The slot of the x standard deviation.
+	 */
+	public static final int X_S = 8;
+
+	/**
+	 * The slot of the y standard deviation.
+	 */
+	public static final int Y_S = 9;
+
+	/**
+	 * The slot of the covariance.
+	 */
+	public static final int COVARIANCE = 10;
+
+	/**
+	 * The slot of the correlation.
+	 */
+	public static final int CORRELATION = 11;
+
+	/**
+	 * The slot of R squared.
+	 */
+	public static final int R_SQUARED = 12;
+
+	/**
+	 * The slot of the slope of the least-squares line.
+	 */
+	public static final int SLOPE = 13;
+
+	/**
+	 * The slot of the intercept of the least-squares line.
+	 */
+	public static final int INTERCEPT = 14;
+
+	/**
+	 * The number of slots, in calcBox order.
+	 */
+	public static final int COUNT = 15;
+
+	/**
+	 * The x values kept in running sums: the mean and deviation.
+	 */
+	public static final int X_MOMENTS = 1 << X_MEAN | 1 << X_S;
+
+	/**
+	 * The y values kept in running sums: the mean and deviation.
+	 */
+	public static final int Y_MOMENTS = 1 << Y_MEAN | 1 << Y_S;
+
+	/**
+	 * The x values that need the values in order: the median and range.
+	 */
+	public static final int X_ORDER = 1 << X_MEDIAN | 1 << X_RANGE;
+
+	/**
+	 * The y values that need the values in order: the median and range.
+	 */
+	public static final int Y_ORDER = 1 << Y_MEDIAN | 1 << Y_RANGE;
+
+	/**
+	 * The x values that need the value counts: the mode.
+	 */
+	public static final int X_COUNTS = 1 << X_MODE;
+
+	/**
+	 * The y values that need the value counts: the mode.
+	 */
+	public static final int Y_COUNTS = 1 << Y_MODE;
+
+	/**
+	 * The values that depend on x and y together.
+	 */
+	public static final int PAIRED = 1 << COVARIANCE | 1 << CORRELATION
+			| 1 << R_SQUARED | 1 << SLOPE | 1 << INTERCEPT;
+
+	/**
+	 * Every slot.
+	 */
+	public static final int ALL = (1 << COUNT) - 1;
+
+	/**
+	 * The statistics the values come from.
+	 */
+	private Statistics stats;
+
+	/**
+	 * Formats each value.
+	 */
+	private final NumberFormat format;
+
+	/**
+	 * The remembered text of each slot.
+	 */
+	private final String[] text = new String[COUNT];
+
+	/**
+	 * The slots whose remembered text is out of date.
+	 */
+	private int dirty = ALL;
+
+	/**
+	 * Creates bindings with every value out of date.
+	 * @param stats is the statistics to show.
+	 * @param format formats each value.
+	 */
+	public MetricBindings(Statistics stats, NumberFormat format) {
+		this.stats = stats;
+		this.format = format;
+	}
+
+	/**
+	 * Retrieve the slots that change when one component of a point changes.
+	 * @param axis is {@link Statistics#X} or {@link Statistics#Y}.
+	 * @return the axis's slots and the paired slots.
+	 */
+	public static int affectedBy(int axis) {
+		switch (axis) {
+		case Statistics.X:
+			return X_MOMENTS | X_ORDER | X_COUNTS | PAIRED;
+		case Statistics.Y:
+			return Y_MOMENTS | Y_ORDER | Y_COUNTS | PAIRED;
+		default:
+			throw new IllegalArgumentException("Unknown axis: " + axis);
+		}
+	}
+
+	/**
+	 * Shows other statistics, marking every value out of date.
+	 * @param stats is the new statistics.
+	 */
+	public void setStatistics(Statistics stats) {
+		this.stats = stats;
+		dirty = ALL;
+	}
+
+	/**
+	 * Shows other statistics whose values are already known, as when they
+	 * were saved with the points.
+	 * @param stats is the new statistics.
+	 * @param known holds the text of each slot, or null where it is not known.
+	 */
+	public void setStatistics(Statistics stats, String[] known) {
+		this.stats = stats;
+		dirty = 0;
+		for (int i = 0; i < COUNT; i++) {
+			text[i] = known[i];
+			if (known[i] == null) dirty |= 1 << i;
+		}
+	}
+
+	/**
+	 * Marks values out of date after the statistics change.
+	 * @param slots is the mask of slots to mark.
+	 */
+	public void invalidate(int slots) {
+		dirty |= slots & ALL;
+	}
+
+	/**
+	 * Retrieve the slots that are out of date.
+	 * @return the mask of slots.
+	 */
+	public int getDirty() {
+		return dirty;
+	}
+
+	/**
+	 * Retrieve the text of one slot, formatting it if it is out of date.
+	 * @param slot is the slot, from 0 to {@link #COUNT} - 1.
+	 * @return the formatted value.
+	 */
+	public String get(int slot) {
+		if ((dirty & 1 << slot) != 0) {
+			text[slot] = compute(slot);
+			dirty &= ~(1 << slot);
+		}
+		return text[slot];
+	}
+
+	/**
+	 * Brings the wanted slots up to date. Slots that are not wanted are
+	 * left out of date until they are.
+	 * @param wanted is the mask of slots that are shown.
+	 * @return the new text of every slot that was out of date and wanted,
+	 * with null for the rest, or null if nothing was out of date.
+	 */
+	public String[] refresh(int wanted) {
+		int slots = dirty & wanted;
+		if (slots == 0) return null;
+		String[] out = new String[COUNT];
+		for (int i = 0; i < COUNT; i++) {
+			if ((slots & 1 << i) != 0) out[i] = get(i);
+		}
+		return out;
+	}
+
+	/**
+	 * Formats one value. In sketch mode a median is followed by half the
+	 * width of the range it lies in, and a mode is marked as approximate and
+	 * followed by how much its count may be too high.
+	 * @param slot is the slot.
+	 * @return the formatted value.
+	 */
+	private String compute(int slot) {
+		switch (slot) {
+		case X_MEAN:
+			return format.format(stats.getXMean());
+		case Y_MEAN:
+			return format.format(stats.getYMean());
+		case X_MEDIAN:
+			return median(Statistics.X);
+		case Y_MEDIAN:
+			return median(Statistics.Y);
+		case X_MODE:
+			return mode(Statistics.X, stats.getXMode());
+		case Y_MODE:
+			return mode(Statistics.Y, stats.getYMode());
+		case X_RANGE:
+			return format.format(stats.getXRange());
+		case Y_RANGE:
+			return format.format(stats.getYRange());
+		case X_S:
+			return format.format(stats.getXs());
+		case Y_S:
+			return format.format(stats.getYs());
+		case COVARIANCE:
+			return format.format(stats.getCovariance());
+		case CORRELATION:
+			return format.format(stats.getCorrelation());
+		case R_SQUARED:
+			return format.format(stats.getRSquared());
+		case SLOPE:
+			return format.format(stats.getSlope());
+		case INTERCEPT:
+			return format.format(stats.getIntercept());
+		default:
+			throw new IllegalArgumentException("Unknown slot: " + slot);
+		}
+	}
+
+	/**
+	 * Formats the median of one component.
+	 * @param axis is {@link Statistics#X} or {@link Statistics#Y}.
+	 * @return the median, with its error in sketch mode.
+	 */
+	private String median(int axis) {
+		String s = format.format(stats.quantile(axis, 0.5));
+		if (stats.isExact()) return s;
+		double[] bounds = stats.quantileBounds(axis, 0.5);
+		return s + " \u00b1" + format.format((bounds[1] - bounds[0]) / 2);
+	}
+
+	/**
+	 * Formats a mode.
+	 * @param axis is {@link Statistics#X} or {@link Statistics#Y}.
+	 * @param mode is the mode.
+	 * @return the mode, with its count error in sketch mode.
+	 */
+	private String mode(int axis, double mode) {
+		String s = format.format(mode);
+		if (stats.isExact()) return s;
+		return "~" + s + " (count +" + Math.round(stats.getModeError(axis)) + ")";
+	}
+}
@@ -0,0 +1,172 @@
+package smallstatapp;
+
+/**
+ * The inner loops that summarize two columns: count, means, squared
+ * deviations, co-deviation and bounds in one pass. A kernel written for the
+ * incubating Vector API, built on its own from the vector directory, is
+ * used when the JVM was started with --add-modules jdk.incubator.vector;
+ * otherwise, or if the system property smallstatapp.vector is false, a
+ * scalar kernel does the same work.
+ * <p>
+ * Both kernels sum deviations from the first value of the range instead of
+ * from zero. Sums of squares about a nearby point lose far less precision
+ * than raw sums of squares, and no second pass is needed for the mean.
+ * @author Melinda Robertson
+ * @version 17 October 2026
+ */
+public final class MomentKernels {
+
+	/**
+	 * Summarizes part of two columns.
+	 */
+	public interface Kernel {
+
+		/**
+		 * Summarizes a range of points.
+		 * @param xs holds the x components.
+		 * @param ys holds the y components.
+		 * @param from is the first index, inclusive.
+		 * @param to is the last index, exclusive.
+		 * @param bounds receives x min, x max, y min, y max; may be null.
+		 * @return the paired moments of the range.
+		 */
+		PairedMoments summarize(double[] xs, double[] ys, int from, int to, double[] bounds);
+	}
+
+	/**
+	 * The scalar kernel.
+	 */
+	private static final Kernel SCALAR = new ScalarKernel();
+
+	/**
+	 * The vector kernel, or null if the Vector API cannot be used.
+	 */
+	private static final Kernel VECTOR = loadVector();
+
+	/**
+	 * Not made; the kernels are reached through static methods.
+	 */
+	private MomentKernels() {
+	}
+
+	/**
+	 * Summarizes a range of points with the fastest kernel available.
+	 * @param xs holds the x components.
+	 * @param ys holds the y components.
+	 * @param from is the first index, inclusive.
+	 * @param to is the last index, exclusive.
+	 * @param bounds receives x min, x max, y min, y max; may be null.
+	 * @return the paired moments of the range.
+	 */
+	public static PairedMoments summarize(double[] xs, double[] ys, int from, int to,
+			double[] bounds) {
+		return preferred().summarize(xs, ys, from, to, bounds);
+	}
+
+	/**
+	 * Retrieve the kernel used by {@link #summarize}.
+	 * @return the vector kernel if it can be used, else the scalar one.
+	 */
+	public static Kernel preferred() {
+		return VECTOR != null ? VECTOR : SCALAR;
+	}
+
+	/**
+	 * Retrieve the scalar kernel.
+	 * @return the kernel.
+	 */
+	public static Kernel scalar() {
+		return SCALAR;
+	}
+
+	/**
+	 * Retrieve the vector kernel.
+	 * @return the kernel, or null if the Vector API cannot be used.
+	 */
+	public static Kernel vector() {
+		return VECTOR;
+	}
+
+	/**
+	 * Loads the vector kernel if it was built and its module is present.
+	 * The class is only named in a string so this class compiles and loads
+	 * without either.
+	 * @return the kernel, or null.
+	 */
+	private static Kernel loadVector() {
+		if (!Boolean.parseBoolean(System.getProperty("smallstatapp.vector", "true"))) {
+			return null;
+		}
+		if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+			return null;
+		}
+		try {
+			return (Kernel) Class.forName("smallstatapp.VectorMomentKernel")
+					.getDeclaredConstructor().newInstance();
+		} catch (ReflectiveOperationException | LinkageError e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Builds the result of a kernel from sums of deviations from a shift.
+	 * @param n is the number of points.
+	 * @param shiftX is the value x deviations are taken from.
+	 * @param shiftY is the value y deviations are taken from.
+	 * @param sx is the sum of x deviations.
+	 * @param sy is the sum of y deviations.
+	 * @param sxx is the sum of squared x deviations.
+	 * @param syy is the sum of squared y deviations.
+	 * @param sxy is the sum of products of x and y deviations.
+	 * @return the paired moments.
+	 */
+	static PairedMoments fromShiftedSums(int n, double shiftX, double shiftY,
+			double sx, double sy, double sxx, double syy, double sxy) {
+		double mx = sx / n;
+		double my = sy / n;
+		return PairedMoments.of(n, shiftX + mx, shiftY + my,
+				Math.max(sxx - sx * mx, 0), Math.max(syy - sy * my, 0), sxy - sx * my);
+	}
+
+	/**
+	 * Summarizes with plain loops.
+	 */
+	private static class ScalarKernel implements Kernel {
+
+		/**
+		 * Summarizes a range of points one at a time.
+		 */
+		@Override
+		public PairedMoments summarize(double[] xs, double[] ys, int from, int to,
+				double[] bounds) {
+			int n = to - from;
+			if (n <= 0) return new PairedMoments();
+			double kx = xs[from];
+			double ky = ys[from];
+			double sx = 0, sy = 0, sxx = 0, syy = 0, sxy = 0;
+			double minX = kx, maxX = kx, minY = ky, maxY = ky;
+			for (int i = from; i < to; i++) {
+				double x = xs[i];
+				double y = ys[i];
+				double dx = x - kx;
+				double dy = y - ky;
+				sx += dx;
+				sy += dy;
+				sxx += dx * dx;
+				syy += dy * dy;
+				sxy += dx * dy;
+				if (x < minX) minX = x;
+				if (x > maxX) maxX = x;
+				if (y < minY) minY = y;
+				if (y > maxY) maxY = y;
+			}
+			if (bounds != null) {
+				bounds[0] = minX;
+				bounds[1] = maxX;
+				bounds[2] = minY;
+				bounds[3] = maxY;
+			}
+			return fromShiftedSums(n, kx, ky, sx, sy, sxx, syy, sxy);
+		}
+	}
+}
@@ -0,0 +1,168 @@
+package smallstatapp;
+
+/**
+ * Running count, mean and sum of squared deviations for one column of values.
+ * Values can be added and removed one at a time in constant time using
+ * Welford's method, so the variance never needs a second pass over the data.
+ * @author Melinda Robertson
+ * @version 17 October 2026
+ */
+public class Moments {
+
+	/**
+	 * The number of values seen.
+	 */
+	private long count;
+
+	/**
+	 * The running average.
+	 */
+	private double mean;
+
+	/**
+	 * The sum of squared deviations from the running average.
+	 */
+	private double m2;
+
+	/**
+	 * Adds a value and updates the mean and squared deviations.
+	 * @param v is the value to add.
+	 */
+	public void add(double v) {
+		count++;
+		double delta = v - mean;
+		mean += delta / count;
+		m2 += delta * (v - mean);
+	}
+
+	/**
+	 * Removes a value that was added earlier. This is Welford's update run
+	 * backwards, so the caller must only remove values it has added.
+	 * @param v is the value to remove.
+	 */
+	public void remove(double v) {
+		if (count <= 1) {
+			clear();
+			return;
+		}
+		count--;
+		double delta = v - mean;
+		mean -= delta / count;
+		m2 -= delta * (v - mean);
+		//Rounding can push this a hair below zero for near-constant data.
+		if (m2 < 0) m2 = 0;
+	}
+
+	/**
+	 * Computes the moments of part of an array. The mean is found first and
+	 * the squared deviations summed on a second pass, which avoids the
+	 * per-value division of the running update.
+	 * @param a is the array.
+	 * @param from is the first index, inclusive.
+	 * @param to is the last index, exclusive.
+	 * @return the moments of the range.
+	 */
+	public static Moments of(double[] a, int from, int to) {
+		Moments m = new Moments();
+		int n = to - from;
+		if (n == 0) return m;
+		double sum = 0;
+		for (int i = from; i < to; i++) {
+			sum += a[i];
+		}
+		double mean = sum / n;
+		double sq = 0;
+		for (int i = from; i < to; i++) {
+			double d = a[i] - mean;
+			sq += d * d;
+		}
+		m.count = n;
+		m.mean = mean;
+		m.m2 = sq;
+		return m;
+	}
+
+	/**
+	 * Creates moments from values already summed elsewhere.
+	 * @param count is the number of values.
+	 * @param mean is the average.
+	 * @param m2 is the sum of squared deviations.
+	 * @return the moments.
+	 */
+	static Moments of(long count, double mean, double m2) {
+		Moments m = new Moments();
+		m.count = count;
+		m.mean = count == 0 ? 0 : mean;
+		m.m2 = m2;
+		return m;
+	}
+
+	/**
+	 * Adds every value counted by another set of moments, using Chan's
+	 * pairwise update. The other moments are not changed.
+	 * @param other holds the values to add.
+	 */
+	public void merge(Moments other) {
+		if (other.count == 0) return;
+		if (count == 0) {
+			count = other.count;
+			mean = other.mean;
+			m2 = other.m2;
+			return;
+		}
+		long n = count + other.count;
+		double delta = other.mean - mean;
+		mean += delta * other.count / n;
+		m2 += other.m2 + delta * delta * ((double) count * other.count / n);
+		count = n;
+	}
+
+	/**
+	 * Forgets every value.
+	 */
+	public void clear() {
+		count = 0;
+		mean = 0;
+		m2 = 0;
+	}
+
+	/**
+	 * Retrieve the number of values.
+	 * @return the count.
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * Retrieve the average value.
+	 * @return the mean, or NaN if there are no values.
+	 */
+	public double getMean() {
+		return count == 0 ? Double.NaN : mean;
+	}
+
+	/**
+	 * Retrieve the sum of squared deviations from the mean.
+	 * @return the second central moment times the count.
+	 */
+	public double getM2() {
+		return m2;
+	}
+
+	/**
+	 * Retrieve the sample variance.
+	 * @return the variance, or NaN if there are fewer than two values.
+	 */
+	public double getVariance() {
+		return count < 2 ? Double.NaN : m2 / (count - 1);
+	}
+
+	/**
+	 * Retrieve the sample standard deviation.
+	 * @return the standard deviation, or NaN if there are fewer than two values.
+	 */
+	public double getStandardDeviation() {
+		return Math.sqrt(getVariance());
+	}
+}
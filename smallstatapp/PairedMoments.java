@@ -0,0 +1,251 @@
+package smallstatapp;
+
+/**
+ * Running means, squared deviations and co-deviation of x-y pairs, from
+ * which the covariance, correlation and least-squares line follow.
+ * Pairs are added and removed one at a time in constant time with the
+ * two-variable form of Welford's method, so nothing is sorted and the
+ * pairing of x with y is never lost.
+ * @author Melinda Robertson
+ * @version 17 October 2026
+ */
+public class PairedMoments {
+
+	/**
+	 * The number of pairs seen.
+	 */
+	private long count;
+
+	/**
+	 * The running x average.
+	 */
+	private double meanX;
+
+	/**
+	 * The running y average.
+	 */
+	private double meanY;
+
+	/**
+	 * The sum of squared x deviations.
+	 */
+	private double m2x;
+
+	/**
+	 * The sum of squared y deviations.
+	 */
+	private double m2y;
+
+	/**
+	 * The sum of products of x and y deviations.
+	 */
+	private double cxy;
+
+	/**
+	 * Adds a pair.
+	 * @param x is the x component.
+	 * @param y is the y component.
+	 */
+	public void add(double x, double y) {
+		count++;
+		double dx = x - meanX;
+		double dy = y - meanY;
+		meanX += dx / count;
+		meanY += dy / count;
+		m2x += dx * (x - meanX);
+		m2y += dy * (y - meanY);
+		cxy += dx * (y - meanY);
+	}
+
+	/**
+	 * Removes a pair that was added earlier, running the update backwards.
+	 * @param x is the x component.
+	 * @param y is the y component.
+	 */
+	public void remove(double x, double y) {
+		if (count <= 1) {
+			clear();
+			return;
+		}
+		count--;
+		double dx = x - meanX;
+		double dy = y - meanY;
+		meanX -= dx / count;
+		meanY -= dy / count;
+		m2x -= dx * (x - meanX);
+		m2y -= dy * (y - meanY);
+		cxy -= dy * (x - meanX);
+		//Rounding can push these a hair below zero for near-constant data.
+		if (m2x < 0) m2x = 0;
+		if (m2y < 0) m2y = 0;
+	}
+
+	/**
+	 * Computes the paired moments of part of two arrays, with the means
+	 * found on a first pass and the deviations summed on a second.
+	 * @param xs holds the x components.
+	 * @param ys holds the y components.
+	 * @param from is the first index, inclusive.
+	 * @param to is the last index, exclusive.
+	 * @return the moments of the range.
+	 */
+	public static PairedMoments of(double[] xs, double[] ys, int from, int to) {
+		PairedMoments m = new PairedMoments();
+		int n = to - from;
+		if (n == 0) return m;
+		double sumX = 0;
+		double sumY = 0;
+		for (int i = from; i < to; i++) {
+			sumX += xs[i];
+			sumY += ys[i];
+		}
+		double mx = sumX / n;
+		double my = sumY / n;
+		double sxx = 0;
+		double syy = 0;
+		double sxy = 0;
+		for (int i = from; i < to; i++) {
+			double dx = xs[i] - mx;
+			double dy = ys[i] - my;
+			sxx += dx * dx;
+			syy += dy * dy;
+			sxy += dx * dy;
+		}
+		m.count = n;
+		m.meanX = mx;
+		m.meanY = my;
+		m.m2x = sxx;
+		m.m2y = syy;
+		m.cxy = sxy;
+		return m;
+	}
+
+	/**
+	 * Creates paired moments from values a kernel has already summed.
+	 * @param count is the number of pairs.
+	 * @param meanX is the x average.
+	 * @param meanY is the y average.
+	 * @param m2x is the sum of squared x deviations.
+	 * @param m2y is the sum of squared y deviations.
+	 * @param cxy is the sum of products of x and y deviations.
+	 * @return the moments.
+	 */
+	static PairedMoments of(long count, double meanX, double meanY, double m2x,
+			double m2y, double cxy) {
+		PairedMoments m = new PairedMoments();
+		m.count = count;
+		m.meanX = meanX;
+		m.meanY = meanY;
+		m.m2x = m2x;
+		m.m2y = m2y;
+		m.cxy = cxy;
+		return m;
+	}
+
+	/**
+	 * Retrieve the moments of the x components alone.
+	 * @return a new Moments with the x count, mean and squared deviations.
+	 */
+	public Moments xMoments() {
+		return Moments.of(count, meanX, m2x);
+	}
+
+	/**
+	 * Retrieve the moments of the y components alone.
+	 * @return a new Moments with the y count, mean and squared deviations.
+	 */
+	public Moments yMoments() {
+		return Moments.of(count, meanY, m2y);
+	}
+
+	/**
+	 * Adds every pair counted by another set of moments, using Chan's
+	 * pairwise update. The other moments are not changed.
+	 * @param other holds the pairs to add.
+	 */
+	public void merge(PairedMoments other) {
+		if (other.count == 0) return;
+		if (count == 0) {
+			count = other.count;
+			meanX = other.meanX;
+			meanY = other.meanY;
+			m2x = other.m2x;
+			m2y = other.m2y;
+			cxy = other.cxy;
+			return;
+		}
+		long n = count + other.count;
+		double dx = other.meanX - meanX;
+		double dy = other.meanY - meanY;
+		double weight = (double) count * other.count / n;
+		meanX += dx * other.count / n;
+		meanY += dy * other.count / n;
+		m2x += other.m2x + dx * dx * weight;
+		m2y += other.m2y + dy * dy * weight;
+		cxy += other.cxy + dx * dy * weight;
+		count = n;
+	}
+
+	/**
+	 * Forgets every pair.
+	 */
+	public void clear() {
+		count = 0;
+		meanX = 0;
+		meanY = 0;
+		m2x = 0;
+		m2y = 0;
+		cxy = 0;
+	}
+
+	/**
+	 * Retrieve the number of pairs.
+	 * @return the count.
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * Retrieve the sample covariance of x and y.
+	 * @return the covariance, or NaN if there are fewer than two pairs.
+	 */
+	public double getCovariance() {
+		return count < 2 ? Double.NaN : cxy / (count - 1);
+	}
+
+	/**
+	 * Retrieve the Pearson correlation of x and y.
+	 * @return r from -1 to 1, or NaN if either component is constant.
+	 */
+	public double getCorrelation() {
+		if (count < 2 || m2x == 0 || m2y == 0) return Double.NaN;
+		double r = cxy / Math.sqrt(m2x * m2y);
+		return Math.max(-1, Math.min(1, r));
+	}
+
+	/**
+	 * Retrieve the slope of the least-squares line of y on x.
+	 * @return the slope, or NaN if x is constant.
+	 */
+	public double getSlope() {
+		return count < 2 || m2x == 0 ? Double.NaN : cxy / m2x;
+	}
+
+	/**
+	 * Retrieve where the least-squares line of y on x meets the y axis.
+	 * @return the intercept, or NaN if x is constant.
+	 */
+	public double getIntercept() {
+		return meanY - getSlope() * meanX;
+	}
+
+	/**
+	 * Retrieve the share of the y variance explained by the line.
+	 * @return R squared from 0 to 1, or NaN if either component is constant.
+	 */
+	public double getRSquared() {
+		double r = getCorrelation();
+		return r * r;
+	}
+}
@@ -0,0 +1,76 @@
+package smallstatapp;
+
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Computes the paired moments of two large columns on a fork/join pool.
+ * The columns are split in halves until the pieces are small enough for
+ * one {@link MomentKernels} pass, and the partial results are combined with
+ * {@link PairedMoments#merge(PairedMoments)}.
+ * @author Melinda Robertson
+ * @version 17 October 2026
+ */
+public class ParallelPairedMoments extends RecursiveTask<PairedMoments> {
+
+	/**
+	 * Needed because RecursiveTask is serializable.
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Ranges this size or smaller are computed on one thread.
+	 */
+	private static final int LEAF_SIZE = 1 << 14;
+
+	/**
+	 * The x components.
+	 */
+	private final double[] xs;
+
+	/**
+	 * The y components.
+	 */
+	private final double[] ys;
+
+	/**
+	 * The first index of the range, inclusive.
+	 */
+	private final int from;
+
+	/**
+	 * The last index of the range, exclusive.
+	 */
+	private final int to;
+
+	/**
+	 * Creates a task for part of two columns.
+	 * @param xs holds the x components.
+	 * @param ys holds the y components.
+	 * @param from is the first index, inclusive.
+	 * @param to is the last index, exclusive.
+	 */
+	public ParallelPairedMoments(double[] xs, double[] ys, int from, int to) {
+		this.xs = xs;
+		this.ys = ys;
+		this.from = from;
+		this.to = to;
+	}
+
+	/**
+	 * Computes the paired moments of the range.
+	 * @return the moments.
+	 */
+	@Override
+	protected PairedMoments compute() {
+		if (to - from <= LEAF_SIZE) {
+			return MomentKernels.summarize(xs, ys, from, to, null);
+		}
+		int mid = (from + to) >>> 1;
+		ParallelPairedMoments left = new ParallelPairedMoments(xs, ys, from, mid);
+		left.fork();
+		PairedMoments right = new ParallelPairedMoments(xs, ys, mid, to).compute();
+		PairedMoments result = left.join();
+		result.merge(right);
+		return result;
+	}
+}
@@ -0,0 +1,101 @@
+package smallstatapp;
+
+import javafx.scene.control.ContentDisplay;
+import javafx.scene.control.TableCell;
+import javafx.scene.control.TextField;
+import javafx.scene.input.KeyCode;
+
+/**
+ * A table cell that shows one component of a point and can be edited in
+ * place. The cell keeps one TextField for as long as it lives and turns the
+ * text straight into a double on commit; text that is not a number cancels
+ * the edit instead of throwing.
+ * @author Melinda Robertson
+ * @version 17 October 2026
+ */
+public class PointCell extends TableCell<Integer, Double> {
+
+	/**
+	 * The editor, made on the first edit.
+	 */
+	private TextField field;
+
+	/**
+	 * Creates a cell.
+	 */
+	public PointCell() {
+		setContentDisplay(ContentDisplay.TEXT_ONLY);
+	}
+
+	/**
+	 * Shows the value, or nothing for an empty row.
+	 */
+	@Override
+	protected void updateItem(Double item, boolean empty) {
+		super.updateItem(item, empty);
+		if (empty || item == null) {
+			setText(null);
+			setGraphic(null);
+		} else if (isEditing()) {
+			field.setText(item.toString());
+		} else {
+			setText(item.toString());
+		}
+	}
+
+	/**
+	 * Swaps the text for the editor.
+	 */
+	@Override
+	public void startEdit() {
+		if (isEmpty()) return;
+		super.startEdit();
+		if (!isEditing()) return;
+		if (field == null) {
+			field = new TextField();
+			field.setOnAction(e -> commit());
+			field.setOnKeyPressed(e -> {
+				if (e.getCode() == KeyCode.ESCAPE) cancelEdit();
+			});
+		}
+		field.setText(getItem().toString());
+		setGraphic(field);
+		setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+		field.selectAll();
+		field.requestFocus();
+	}
+
+	/**
+	 * Puts the text back without changing the point.
+	 */
+	@Override
+	public void cancelEdit() {
+		super.cancelEdit();
+		setContentDisplay(ContentDisplay.TEXT_ONLY);
+	}
+
+	/**
+	 * Puts the text back after the point changes.
+	 */
+	@Override
+	public void commitEdit(Double value) {
+		super.commitEdit(value);
+		setContentDisplay(ContentDisplay.TEXT_ONLY);
+	}
+
+	/**
+	 * Commits the editor's text if it is a finite number.
+	 */
+	private void commit() {
+		try {
+			double v = Double.parseDouble(field.getText().trim());
+			if (Double.isFinite(v)) {
+				commitEdit(v);
+			} else {
+				cancelEdit();
+			}
+		} catch (NumberFormatException e) {
+			cancelEdit();
+		}
+	}
+}
@@ -0,0 +1,384 @@
+package smallstatapp;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads x-y points from files or pasted text into a {@link PointStore}.
+ * Files are memory mapped rather than read through streams, and CSV numbers
+ * are parsed straight from the bytes, so no String is made for each field.
+ * Points go into the store in large batches; the caller can then copy the
+ * store into its own with a single notification.
+ * @author Melinda Robertson
+ * @version 17 October 2026
+ */
+public class PointImporter {
+
+	/**
+	 * How many points are parsed before they are added to the store.
+	 */
+	private static final int BATCH = 1 << 16;
+
+	/**
+	 * The most bytes mapped at once.
+	 */
+	private static final int CHUNK = 1 << 28;
+
+	/**
+	 * The powers of ten that a double holds exactly.
+	 */
+	private static final double[] POWERS = {
+		1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+		1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+
+	/**
+	 * Points parsed but not yet added to the store.
+	 */
+	private final double[] xs = new double[BATCH];
+
+	/**
+	 * Points parsed but not yet added to the store.
+	 */
+	private final double[] ys = new double[BATCH];
+
+	/**
+	 * The number of points waiting in xs and ys.
+	 */
+	private int pending;
+
+	/**
+	 * The store being filled.
+	 */
+	private final PointStore store;
+
+	/**
+	 * The position of the next byte to parse in the current chunk.
+	 */
+	private int pos;
+
+	/**
+	 * Holds a number's characters on the rare path that needs the JDK parser.
+	 * Grows to fit the longest such number.
+	 */
+	private char[] digits = new char[64];
+
+	/**
+	 * Creates an importer that adds to a store.
+	 * @param store receives the points.
+	 */
+	private PointImporter(PointStore store) {
+		this.store = store;
+	}
+
+	/**
+	 * Reads a text file with one point per line, x then y, separated by a
+	 * comma, semicolon, tab or spaces. A first line that is not numbers is
+	 * taken as a header and skipped, as are blank lines.
+	 * @param file is the file to read.
+	 * @return a store with the points.
+	 * @throws IOException if the file cannot be read or a line is not a point.
+	 */
+	public static PointStore readCsv(Path file) throws IOException {
+		PointStore store = new PointStore();
+		new PointImporter(store).parseCsv(file);
+		return store;
+	}
+
+	/**
+	 * Reads text in the same form as {@link #readCsv(Path)}, such as rows
+	 * pasted from a spreadsheet.
+	 * @param text is the text to read.
+	 * @return a store with the points.
+	 * @throws IOException if a line is not a point.
+	 */
+	public static PointStore readCsv(CharSequence text) throws IOException {
+		PointStore store = new PointStore();
+		PointImporter in = new PointImporter(store);
+		ByteBuffer buf = StandardCharsets.UTF_8.encode(CharBuffer.wrap(text));
+		in.parseLines(buf, buf.limit(), 0);
+		in.flush();
+		return store;
+	}
+
+	/**
+	 * Reads a file of raw little-endian doubles, x then y for each point.
+	 * @param file is the file to read.
+	 * @return a store with the points.
+	 * @throws IOException if the file cannot be read or its length is not
+	 * a whole number of points.
+	 */
+	public static PointStore readBinary(Path file) throws IOException {
+		try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+			long size = ch.size();
+			if (size % 16 != 0) {
+				throw new IOException(file + " is not a whole number of x-y pairs.");
+			}
+			PointStore store = new PointStore((int) Math.min(size / 16, Integer.MAX_VALUE - 8));
+			double[] pairs = new double[2 * BATCH];
+			double[] xs = new double[BATCH];
+			double[] ys = new double[BATCH];
+			for (long start = 0; start < size; ) {
+				long length = Math.min(size - start, CHUNK - CHUNK % 16);
+				DoubleBuffer in = ch.map(FileChannel.MapMode.READ_ONLY, start, length)
+						.order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+				while (in.hasRemaining()) {
+					int n = Math.min(in.remaining(), pairs.length) / 2;
+					in.get(pairs, 0, 2 * n);
+					for (int i = 0; i < n; i++) {
+						xs[i] = pairs[2 * i];
+						ys[i] = pairs[2 * i + 1];
+					}
+					store.addAll(xs, ys, 0, n);
+				}
+				start += length;
+			}
+			return store;
+		}
+	}
+
+	/**
+	 * Parses every line of a text file.
+	 * @param file is the file.
+	 * @throws IOException if the file cannot be read or a line is not a point.
+	 */
+	private void parseCsv(Path file) throws IOException {
+		try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+			long size = ch.size();
+			long line = 0;
+			for (long start = 0; start < size; ) {
+				int length = (int) Math.min(size - start, CHUNK);
+				MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, start, length);
+				//Stop at the last line break so no line is split between chunks.
+				int end = length;
+				if (start + length < size) {
+					while (end > 0 && buf.get(end - 1) != '\n') end--;
+					if (end == 0) throw new IOException("Line " + (line + 1) + " is too long.");
+				}
+				line = parseLines(buf, end, line);
+				start += end;
+			}
+			flush();
+		}
+	}
+
+	/**
+	 * Parses every line in a buffer from the start.
+	 * @param buf holds the bytes.
+	 * @param end is one past the last byte to read; it must end a line.
+	 * @param line is the number of lines before the buffer.
+	 * @return the number of lines read so far.
+	 * @throws IOException if a line is not a point.
+	 */
+	private long parseLines(ByteBuffer buf, int end, long line) throws IOException {
+		pos = 0;
+		while (pos < end) {
+			line++;
+			parseLine(buf, end, line);
+		}
+		return line;
+	}
+
+	/**
+	 * Parses one line and queues its point.
+	 * @param buf holds the bytes.
+	 * @param end is one past the last byte that may be read.
+	 * @param line is the line number, for messages.
+	 * @throws IOException if the line is not a point.
+	 */
+	private void parseLine(ByteBuffer buf, int end, long line) throws IOException {
+		int lineStart = pos;
+		skipBlanks(buf, end);
+		if (pos >= end || isLineEnd(buf.get(pos))) {
+			skipLineEnd(buf, end);
+			return;
+		}
+		double x = parseNumber(buf, end);
+		skipSeparator(buf, end);
+		double y = Double.NaN;
+		if (!Double.isNaN(x)) y = parseNumber(buf, end);
+
+		if (Double.isNaN(x) || Double.isNaN(y)) {
+			if (line == 1) {
+				//A header.
+				pos = lineStart;
+				while (pos < end && !isLineEnd(buf.get(pos))) pos++;
+				skipLineEnd(buf, end);
+				return;
+			}
+			throw new IOException("Line " + line + " is not an x-y pair.");
+		}
+		//Ignore any further fields.
+		while (pos < end && !isLineEnd(buf.get(pos))) pos++;
+		skipLineEnd(buf, end);
+
+		xs[pending] = x;
+		ys[pending] = y;
+		if (++pending == BATCH) flush();
+	}
+
+	/**
+	 * Parses a decimal number such as -12.5e3 at the current position.
+	 * Numbers with up to eighteen digits and small exponents are built
+	 * exactly from a long and a power of ten; anything else is copied into
+	 * a char buffer for {@link Double#parseDouble(String)}. A number must
+	 * end the field: anything but a blank, separator or line break right
+	 * after it, as in 1.2.3, means there is no number here, and so does a
+	 * number too large for a double.
+	 * @param buf holds the bytes.
+	 * @param end is one past the last byte that may be read.
+	 * @return the number, or NaN if there is no number here.
+	 */
+	private double parseNumber(ByteBuffer buf, int end) {
+		int start = pos;
+		boolean negative = false;
+		if (pos < end && (buf.get(pos) == '-' || buf.get(pos) == '+')) {
+			negative = buf.get(pos) == '-';
+			pos++;
+		}
+		long mantissa = 0;
+		int digitCount = 0;
+		int scale = 0;
+		boolean any = false;
+		while (pos < end && isDigit(buf.get(pos))) {
+			mantissa = mantissa * 10 + (buf.get(pos) - '0');
+			digitCount += mantissa == 0 ? 0 : 1;
+			any = true;
+			pos++;
+		}
+		if (pos < end && buf.get(pos) == '.') {
+			pos++;
+			while (pos < end && isDigit(buf.get(pos))) {
+				mantissa = mantissa * 10 + (buf.get(pos) - '0');
+				digitCount += mantissa == 0 ? 0 : 1;
+				scale--;
+				any = true;
+				pos++;
+			}
+		}
+		if (!any) {
+			pos = start;
+			return Double.NaN;
+		}
+		if (pos < end && (buf.get(pos) == 'e' || buf.get(pos) == 'E')) {
+			pos++;
+			boolean negExp = false;
+			if (pos < end && (buf.get(pos) == '-' || buf.get(pos) == '+')) {
+				negExp = buf.get(pos) == '-';
+				pos++;
+			}
+			int exp = 0;
+			int expStart = pos;
+			while (pos < end && isDigit(buf.get(pos))) {
+				exp = Math.min(exp * 10 + (buf.get(pos) - '0'), 100000);
+				pos++;
+			}
+			if (pos == expStart) {
+				pos = start;
+				return Double.NaN;
+			}
+			scale += negExp ? -exp : exp;
+		}
+		if (pos < end && !isFieldEnd(buf.get(pos))) {
+			pos = start;
+			return Double.NaN;
+		}
+
+		double value;
+		if (digitCount <= 18 && mantissa < (1L << 53) && Math.abs(scale) <= 22) {
+			//Both parts are exact, so one multiply or divide rounds correctly.
+			value = scale < 0 ? mantissa / POWERS[-scale] : mantissa * POWERS[scale];
+		} else {
+			int length = pos - start;
+			if (length > digits.length) digits = new char[Math.max(length, digits.length * 2)];
+			for (int i = 0; i < length; i++) {
+				digits[i] = (char) buf.get(start + i);
+			}
+			try {
+				value = Math.abs(Double.parseDouble(new String(digits, 0, length)));
+			} catch (NumberFormatException e) {
+				pos = start;
+				return Double.NaN;
+			}
+			//Too large for a double; the statistics only take finite values.
+			if (Double.isInfinite(value)) {
+				pos = start;
+				return Double.NaN;
+			}
+		}
+		return negative ? -value : value;
+	}
+
+	/**
+	 * Adds the queued points to the store.
+	 */
+	private void flush() {
+		store.addAll(xs, ys, 0, pending);
+		pending = 0;
+	}
+
+	/**
+	 * Skips spaces and tabs.
+	 * @param buf holds the bytes.
+	 * @param end is one past the last byte that may be read.
+	 */
+	private void skipBlanks(ByteBuffer buf, int end) {
+		while (pos < end && (buf.get(pos) == ' ' || buf.get(pos) == '\t')) pos++;
+	}
+
+	/**
+	 * Skips the blanks and at most one comma or semicolon between fields.
+	 * @param buf holds the bytes.
+	 * @param end is one past the last byte that may be read.
+	 */
+	private void skipSeparator(ByteBuffer buf, int end) {
+		skipBlanks(buf, end);
+		if (pos < end && (buf.get(pos) == ',' || buf.get(pos) == ';')) pos++;
+		skipBlanks(buf, end);
+	}
+
+	/**
+	 * Skips a line break, if there is one here.
+	 * @param buf holds the bytes.
+	 * @param end is one past the last byte that may be read.
+	 */
+	private void skipLineEnd(ByteBuffer buf, int end) {
+		if (pos < end && buf.get(pos) == '\r') pos++;
+		if (pos < end && buf.get(pos) == '\n') pos++;
+	}
+
+	/**
+	 * Checks for a line break character.
+	 * @param b is the byte.
+	 * @return true for a carriage return or line feed.
+	 */
+	private static boolean isLineEnd(byte b) {
+		return b == '\n' || b == '\r';
+	}
+
+	/**
+	 * Checks for a character that may follow a number.
+	 * @param b is the byte.
+	 * @return true for a blank, comma, semicolon or line break.
+	 */
+	private static boolean isFieldEnd(byte b) {
+		return b == ' ' || b == '\t' || b == ',' || b == ';' || isLineEnd(b);
+	}
+
+	/**
+	 * Checks for a decimal digit.
+	 * @param b is the byte.
+	 * @return true for 0 to 9.
+	 */
+	private static boolean isDigit(byte b) {
+		return b >= '0' && b <= '9';
+	}
+}
@@ -0,0 +1,241 @@
+package smallstatapp;
+
+import java.util.Arrays;
+
+/**
+ * Finds the rows of a {@link PointStore} that hold a given x-y pair in
+ * constant time. Each distinct pair has a slot in an open-addressing table
+ * that points at one of its rows, and the rows with the same pair are
+ * chained together in both directions so any of them can be unlinked or
+ * renumbered without a search.
+ * Components match as {@link Double#compare(double, double)} does.
+ * @author Melinda Robertson
+ * @version 17 October 2026
+ */
+public class PointIndex {
+
+	/**
+	 * The starting number of slots. Must be a power of two.
+	 */
+	private static final int DEFAULT_CAPACITY = 16;
+
+	/**
+	 * The table grows once it is this full.
+	 */
+	private static final double LOAD_FACTOR = 0.5;
+
+	/**
+	 * Marks the end of a chain.
+	 */
+	private static final int NONE = -1;
+
+	/**
+	 * The x bits of the pair in each slot.
+	 */
+	private long[] keyX;
+
+	/**
+	 * The y bits of the pair in each slot.
+	 */
+	private long[] keyY;
+
+	/**
+	 * The first row of each slot's chain plus one. Zero marks an empty slot.
+	 */
+	private int[] head;
+
+	/**
+	 * The number of distinct pairs.
+	 */
+	private int size;
+
+	/**
+	 * The next row with the same pair, for each row.
+	 */
+	private int[] next = new int[0];
+
+	/**
+	 * The previous row with the same pair, for each row.
+	 */
+	private int[] prev = new int[0];
+
+	/**
+	 * Creates an empty index.
+	 */
+	public PointIndex() {
+		keyX = new long[DEFAULT_CAPACITY];
+		keyY = new long[DEFAULT_CAPACITY];
+		head = new int[DEFAULT_CAPACITY];
+	}
+
+	/**
+	 * Records that a row holds a pair.
+	 * @param row is the row.
+	 * @param x is the x component.
+	 * @param y is the y component.
+	 */
+	public void add(int row, double x, double y) {
+		if (row >= next.length) {
+			int grown = Math.max(row + 1, next.length + (next.length >> 1));
+			next = Arrays.copyOf(next, grown);
+			prev = Arrays.copyOf(prev, grown);
+		}
+		if (size + 1 > head.length * LOAD_FACTOR) {
+			rehash(head.length * 2);
+		}
+		long bx = Double.doubleToLongBits(x);
+		long by = Double.doubleToLongBits(y);
+		int i = slot(bx, by);
+		while (head[i] != 0 && (keyX[i] != bx || keyY[i] != by)) {
+			i = (i + 1) & (head.length - 1);
+		}
+		prev[row] = NONE;
+		if (head[i] == 0) {
+			keyX[i] = bx;
+			keyY[i] = by;
+			next[row] = NONE;
+			size++;
+		} else {
+			next[row] = head[i] - 1;
+			prev[head[i] - 1] = row;
+		}
+		head[i] = row + 1;
+	}
+
+	/**
+	 * Forgets a row.
+	 * @param row is the row.
+	 * @param x is the x component the row holds.
+	 * @param y is the y component the row holds.
+	 */
+	public void remove(int row, double x, double y) {
+		int n = next[row];
+		int p = prev[row];
+		if (n != NONE) prev[n] = p;
+		if (p != NONE) {
+			next[p] = n;
+			return;
+		}
+		//The row was first in its chain.
+		int i = find(Double.doubleToLongBits(x), Double.doubleToLongBits(y));
+		if (n != NONE) {
+			head[i] = n + 1;
+		} else {
+			delete(i);
+		}
+	}
+
+	/**
+	 * Gives a row a new number, as when the last row fills a removed one.
+	 * @param from is the old row number.
+	 * @param to is the new row number, which must not be in use.
+	 * @param x is the x component the row holds.
+	 * @param y is the y component the row holds.
+	 */
+	public void move(int from, int to, double x, double y) {
+		int n = next[from];
+		int p = prev[from];
+		next[to] = n;
+		prev[to] = p;
+		if (n != NONE) prev[n] = to;
+		if (p != NONE) {
+			next[p] = to;
+		} else {
+			head[find(Double.doubleToLongBits(x), Double.doubleToLongBits(y))] = to + 1;
+		}
+	}
+
+	/**
+	 * Finds a row that holds a pair.
+	 * @param x is the x component.
+	 * @param y is the y component.
+	 * @return a row with the pair, or -1 if there is none.
+	 */
+	public int find(double x, double y) {
+		int i = find(Double.doubleToLongBits(x), Double.doubleToLongBits(y));
+		return i < 0 ? -1 : head[i] - 1;
+	}
+
+	/**
+	 * Forgets every row.
+	 */
+	public void clear() {
+		Arrays.fill(head, 0);
+		size = 0;
+	}
+
+	/**
+	 * Finds the slot of a pair.
+	 * @param bx is the x bits.
+	 * @param by is the y bits.
+	 * @return the slot, or -1 if the pair is not stored.
+	 */
+	private int find(long bx, long by) {
+		int i = slot(bx, by);
+		while (head[i] != 0) {
+			if (keyX[i] == bx && keyY[i] == by) return i;
+			i = (i + 1) & (head.length - 1);
+		}
+		return -1;
+	}
+
+	/**
+	 * Empties a slot and shifts later entries of the same probe run back.
+	 * @param hole is the slot to empty.
+	 */
+	private void delete(int hole) {
+		int mask = head.length - 1;
+		head[hole] = 0;
+		size--;
+		int i = (hole + 1) & mask;
+		while (head[i] != 0) {
+			int home = slot(keyX[i], keyY[i]);
+			if (((i - home) & mask) >= ((i - hole) & mask)) {
+				keyX[hole] = keyX[i];
+				keyY[hole] = keyY[i];
+				head[hole] = head[i];
+				head[i] = 0;
+				hole = i;
+			}
+			i = (i + 1) & mask;
+		}
+	}
+
+	/**
+	 * Moves every slot into a table of a new size.
+	 * @param capacity is the new number of slots, a power of two.
+	 */
+	private void rehash(int capacity) {
+		long[] oldX = keyX;
+		long[] oldY = keyY;
+		int[] oldHead = head;
+		keyX = new long[capacity];
+		keyY = new long[capacity];
+		head = new int[capacity];
+		for (int j = 0; j < oldHead.length; j++) {
+			if (oldHead[j] != 0) {
+				int i = slot(oldX[j], oldY[j]);
+				while (head[i] != 0) {
+					i = (i + 1) & (capacity - 1);
+				}
+				keyX[i] = oldX[j];
+				keyY[i] = oldY[j];
+				head[i] = oldHead[j];
+			}
+		}
+	}
+
+	/**
+	 * Finds the home slot of a pair.
+	 * @param bx is the x bits.
+	 * @param by is the y bits.
+	 * @return the first slot to probe.
+	 */
+	private int slot(long bx, long by) {
+		long h = bx * 0x9e3779b97f4a7c15L + by;
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		return (int) h & (head.length - 1);
+	}
+}
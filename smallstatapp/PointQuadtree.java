@@ -0,0 +1,571 @@
+package smallstatapp;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * A quadtree over the rows of a {@link PointStore}, for finding the points
+ * in a rectangle or near a position without looking at every point. Each
+ * leaf holds up to a bucket of rows, chained through per-row links, and
+ * splits in four when it overflows; a node whose points fall back under
+ * half a bucket folds its children back in. The tree follows the store's
+ * changes one row at a time, and grows its root outward for points outside
+ * it. Rows with a NaN or infinite component are left out.
+ * @author Melinda Robertson
+ * @version 17 October 2026
+ */
+public class PointQuadtree implements PointStore.Listener {
+
+	/**
+	 * A leaf splits once it holds more rows than this.
+	 */
+	private static final int BUCKET = 32;
+
+	/**
+	 * Leaves this deep do not split, so many copies of one point stay in
+	 * one leaf instead of making the tree ever deeper.
+	 */
+	private static final int MAX_DEPTH = 50;
+
+	/**
+	 * Marks a missing node or row.
+	 */
+	private static final int NONE = -1;
+
+	/**
+	 * The indexed store.
+	 */
+	private final PointStore store;
+
+	/**
+	 * The center x of the root's square.
+	 */
+	private double cx;
+
+	/**
+	 * The center y of the root's square.
+	 */
+	private double cy;
+
+	/**
+	 * Half the side of the root's square.
+	 */
+	private double half;
+
+	/**
+	 * The root node, or NONE before the first point.
+	 */
+	private int root = NONE;
+
+	/**
+	 * The four children of each node, by quadrant; NONE for a leaf.
+	 * Quadrant bit 1 is the upper x half and bit 2 the upper y half.
+	 */
+	private int[] child = new int[64];
+
+	/**
+	 * The parent of each node, or NONE for the root.
+	 */
+	private int[] parent = new int[16];
+
+	/**
+	 * The first row in each leaf, or NONE.
+	 */
+	private int[] head = new int[16];
+
+	/**
+	 * The number of rows under each node.
+	 */
+	private int[] count = new int[16];
+
+	/**
+	 * The number of node slots used.
+	 */
+	private int nodes;
+
+	/**
+	 * Node slots freed by folding, for reuse.
+	 */
+	private int[] free = new int[16];
+
+	/**
+	 * The number of freed node slots.
+	 */
+	private int freeCount;
+
+	/**
+	 * The leaf that holds each row, or NONE.
+	 */
+	private int[] leafOf = new int[16];
+
+	/**
+	 * The next row in the same leaf, or NONE.
+	 */
+	private int[] next = new int[16];
+
+	/**
+	 * The previous row in the same leaf, or NONE.
+	 */
+	private int[] prev = new int[16];
+
+	/**
+	 * The row nearest the position of the last search.
+	 */
+	private int best;
+
+	/**
+	 * The squared pixel distance to the best row.
+	 */
+	private double bestDistance;
+
+	/**
+	 * Indexes every row of a store and follows its changes.
+	 * @param store is the store to index.
+	 */
+	public PointQuadtree(PointStore store) {
+		this.store = store;
+		Arrays.fill(leafOf, NONE);
+		for (int i = 0; i < store.size(); i++) {
+			insert(i);
+		}
+		store.addListener(this);
+	}
+
+	/**
+	 * Stops following the store.
+	 */
+	public void dispose() {
+		store.removeListener(this);
+	}
+
+	/**
+	 * Updates the tree after the store changes.
+	 */
+	@Override
+	public void pointsChanged(PointStore source, int type, int from, int to) {
+		switch (type) {
+		case PointStore.ADDED:
+			for (int i = from; i < to; i++) insert(i);
+			break;
+		case PointStore.REMOVED:
+			if (store.size() == 0) {
+				clear();
+			} else {
+				for (int i = from; i < to; i++) remove(i);
+			}
+			break;
+		case PointStore.UPDATED:
+			for (int i = from; i < to; i++) {
+				remove(i);
+				insert(i);
+			}
+			break;
+		}
+	}
+
+	/**
+	 * Retrieve the number of rows in the tree.
+	 * @return the count, which leaves out rows that are not finite.
+	 */
+	public int size() {
+		return root == NONE ? 0 : count[root];
+	}
+
+	/**
+	 * Counts the rows in a rectangle, bounds included. Whole nodes inside
+	 * the rectangle are counted without visiting their rows.
+	 * @param minX is the left edge.
+	 * @param maxX is the right edge.
+	 * @param minY is the bottom edge.
+	 * @param maxY is the top edge.
+	 * @return the number of rows inside.
+	 */
+	public int count(double minX, double maxX, double minY, double maxY) {
+		if (root == NONE) return 0;
+		return count(root, cx, cy, half, minX, maxX, minY, maxY);
+	}
+
+	/**
+	 * Visits every row in a rectangle, bounds included.
+	 * @param minX is the left edge.
+	 * @param maxX is the right edge.
+	 * @param minY is the bottom edge.
+	 * @param maxY is the top edge.
+	 * @param action is given each row inside.
+	 */
+	public void forEach(double minX, double maxX, double minY, double maxY, IntConsumer action) {
+		if (root == NONE) return;
+		visit(root, cx, cy, half, minX, maxX, minY, maxY, action);
+	}
+
+	/**
+	 * Finds the row nearest a position, measuring in pixels so a zoomed
+	 * chart finds what looks nearest on screen.
+	 * @param x is the x value of the position.
+	 * @param y is the y value of the position.
+	 * @param xScale is pixels per unit of x.
+	 * @param yScale is pixels per unit of y.
+	 * @param radius is the farthest a row may be, in pixels.
+	 * @return the nearest row, or -1 if none is within the radius.
+	 */
+	public int nearest(double x, double y, double xScale, double yScale, double radius) {
+		best = NONE;
+		bestDistance = radius * radius;
+		if (root != NONE) {
+			nearest(root, cx, cy, half, x, y, Math.abs(xScale), Math.abs(yScale));
+		}
+		return best;
+	}
+
+	//------------------SEARCHES--------------------
+
+	/**
+	 * Counts the rows of one node in a rectangle.
+	 * @param node is the node.
+	 * @param ncx is the node's center x.
+	 * @param ncy is the node's center y.
+	 * @param nh is half the node's side.
+	 * @param minX is the left edge.
+	 * @param maxX is the right edge.
+	 * @param minY is the bottom edge.
+	 * @param maxY is the top edge.
+	 * @return the number of rows inside.
+	 */
+	private int count(int node, double ncx, double ncy, double nh,
+			double minX, double maxX, double minY, double maxY) {
+		if (count[node] == 0 || ncx + nh < minX || ncx - nh > maxX
+				|| ncy + nh < minY || ncy - nh > maxY) return 0;
+		if (ncx - nh >= minX && ncx + nh <= maxX && ncy - nh >= minY && ncy + nh <= maxY) {
+			return count[node];
+		}
+		if (child[4 * node] == NONE) {
+			double[] xs = store.xColumn();
+			double[] ys = store.yColumn();
+			int c = 0;
+			for (int i = head[node]; i != NONE; i = next[i]) {
+				if (xs[i] >= minX && xs[i] <= maxX && ys[i] >= minY && ys[i] <= maxY) c++;
+			}
+			return c;
+		}
+		double q = nh / 2;
+		return count(child[4 * node], ncx - q, ncy - q, q, minX, maxX, minY, maxY)
+				+ count(child[4 * node + 1], ncx + q, ncy - q, q, minX, maxX, minY, maxY)
+				+ count(child[4 * node + 2], ncx - q, ncy + q, q, minX, maxX, minY, maxY)
+				+ count(child[4 * node + 3], ncx + q, ncy + q, q, minX, maxX, minY, maxY);
+	}
+
+	/**
+	 * Visits the rows of one node in a rectangle.
+	 * @param node is the node.
+	 * @param ncx is the node's center x.
+	 * @param ncy is the node's center y.
+	 * @param nh is half the node's side.
+	 * @param minX is the left edge.
+	 * @param maxX is the right edge.
+	 * @param minY is the bottom edge.
+	 * @param maxY is the top edge.
+	 * @param action is given each row inside.
+	 */
+	private void visit(int node, double ncx, double ncy, double nh,
+			double minX, double maxX, double minY, double maxY, IntConsumer action) {
+		if (count[node] == 0 || ncx + nh < minX || ncx - nh > maxX
+				|| ncy + nh < minY || ncy - nh > maxY) return;
+		if (child[4 * node] == NONE) {
+			double[] xs = store.xColumn();
+			double[] ys = store.yColumn();
+			for (int i = head[node]; i != NONE; i = next[i]) {
+				if (xs[i] >= minX && xs[i] <= maxX && ys[i] >= minY && ys[i] <= maxY) {
+					action.accept(i);
+				}
+			}
+			return;
+		}
+		double q = nh / 2;
+		visit(child[4 * node], ncx - q, ncy - q, q, minX, maxX, minY, maxY, action);
+		visit(child[4 * node + 1], ncx + q, ncy - q, q, minX, maxX, minY, maxY, action);
+		visit(child[4 * node + 2], ncx - q, ncy + q, q, minX, maxX, minY, maxY, action);
+		visit(child[4 * node + 3], ncx + q, ncy + q, q, minX, maxX, minY, maxY, action);
+	}
+
+	/**
+	 * Searches one node for a row nearer than the best so far. The child
+	 * holding the position is searched first, so the best distance shrinks
+	 * early and most other children are skipped.
+	 * @param node is the node.
+	 * @param ncx is the node's center x.
+	 * @param ncy is the node's center y.
+	 * @param nh is half the node's side.
+	 * @param x is the x value of the position.
+	 * @param y is the y value of the position.
+	 * @param sx is pixels per unit of x.
+	 * @param sy is pixels per unit of y.
+	 */
+	private void nearest(int node, double ncx, double ncy, double nh,
+			double x, double y, double sx, double sy) {
+		if (count[node] == 0) return;
+		double dx = Math.max(Math.abs(x - ncx) - nh, 0) * sx;
+		double dy = Math.max(Math.abs(y - ncy) - nh, 0) * sy;
+		if (dx * dx + dy * dy > bestDistance) return;
+		if (child[4 * node] == NONE) {
+			double[] xs = store.xColumn();
+			double[] ys = store.yColumn();
+			for (int i = head[node]; i != NONE; i = next[i]) {
+				double px = (xs[i] - x) * sx;
+				double py = (ys[i] - y) * sy;
+				double d = px * px + py * py;
+				if (d <= bestDistance) {
+					bestDistance = d;
+					best = i;
+				}
+			}
+			return;
+		}
+		double q = nh / 2;
+		int first = quadrant(x, y, ncx, ncy);
+		for (int k = 0; k < 4; k++) {
+			int quad = first ^ k;
+			nearest(child[4 * node + quad], ncx + ((quad & 1) == 0 ? -q : q),
+					ncy + ((quad & 2) == 0 ? -q : q), q, x, y, sx, sy);
+		}
+	}
+
+	//------------------UPDATES--------------------
+
+	/**
+	 * Adds a row to the leaf that covers it, splitting the leaf if it is full.
+	 * @param i is the row.
+	 */
+	private void insert(int i) {
+		ensureRows(i + 1);
+		double x = store.getX(i);
+		double y = store.getY(i);
+		leafOf[i] = NONE;
+		if (!Double.isFinite(x) || !Double.isFinite(y)) return;
+		if (root == NONE) {
+			cx = x;
+			cy = y;
+			half = Math.max(Math.abs(x), Math.abs(y));
+			if (half == 0) half = 1;
+			root = newNode(NONE);
+		}
+		while (x < cx - half || x >= cx + half || y < cy - half || y >= cy + half) {
+			if (child[4 * root] == NONE) {
+				//A lone leaf has no quadrants to keep, so it just widens.
+				half = 2 * Math.max(Math.abs(x - cx), Math.abs(y - cy));
+			} else {
+				grow(x, y);
+			}
+		}
+		int node = root;
+		double ncx = cx;
+		double ncy = cy;
+		double nh = half;
+		int depth = 0;
+		while (child[4 * node] != NONE) {
+			count[node]++;
+			int quad = quadrant(x, y, ncx, ncy);
+			nh /= 2;
+			ncx += (quad & 1) == 0 ? -nh : nh;
+			ncy += (quad & 2) == 0 ? -nh : nh;
+			node = child[4 * node + quad];
+			depth++;
+		}
+		count[node]++;
+		link(i, node);
+		if (count[node] > BUCKET && depth < MAX_DEPTH) split(node, ncx, ncy, nh);
+	}
+
+	/**
+	 * Takes a row out of its leaf, folding nodes that become nearly empty.
+	 * @param i is the row.
+	 */
+	private void remove(int i) {
+		int leaf = leafOf[i];
+		if (leaf == NONE) return;
+		unlink(i);
+		for (int n = leaf; n != NONE; n = parent[n]) {
+			count[n]--;
+		}
+		for (int p = parent[leaf]; p != NONE && count[p] <= BUCKET / 2; p = parent[p]) {
+			fold(p);
+		}
+	}
+
+	/**
+	 * Forgets every row.
+	 */
+	private void clear() {
+		root = NONE;
+		nodes = 0;
+		freeCount = 0;
+		Arrays.fill(leafOf, NONE);
+	}
+
+	/**
+	 * Doubles the root's square toward a point outside it. The old root
+	 * becomes one quadrant of the new one.
+	 * @param x is the x value to reach.
+	 * @param y is the y value to reach.
+	 */
+	private void grow(double x, double y) {
+		double ncx = x < cx ? cx - half : cx + half;
+		double ncy = y < cy ? cy - half : cy + half;
+		int old = root;
+		root = newNode(NONE);
+		int quad = quadrant(cx, cy, ncx, ncy);
+		for (int q = 0; q < 4; q++) {
+			//Made first, as making a node may replace the child array.
+			int kid = q == quad ? old : newNode(root);
+			child[4 * root + q] = kid;
+		}
+		parent[old] = root;
+		count[root] = count[old];
+		cx = ncx;
+		cy = ncy;
+		half *= 2;
+	}
+
+	/**
+	 * Turns a full leaf into a node with four leaves.
+	 * @param node is the leaf.
+	 * @param ncx is its center x.
+	 * @param ncy is its center y.
+	 * @param nh is half its side.
+	 */
+	private void split(int node, double ncx, double ncy, double nh) {
+		int[] kids = new int[4];
+		for (int q = 0; q < 4; q++) {
+			kids[q] = newNode(node);
+		}
+		double[] xs = store.xColumn();
+		double[] ys = store.yColumn();
+		int i = head[node];
+		head[node] = NONE;
+		while (i != NONE) {
+			int after = next[i];
+			int kid = kids[quadrant(xs[i], ys[i], ncx, ncy)];
+			count[kid]++;
+			link(i, kid);
+			i = after;
+		}
+		for (int q = 0; q < 4; q++) {
+			child[4 * node + q] = kids[q];
+		}
+	}
+
+	/**
+	 * Moves every row under a node into the node and frees its children.
+	 * @param node is the node to fold.
+	 */
+	private void fold(int node) {
+		if (child[4 * node] == NONE) return;
+		for (int q = 0; q < 4; q++) {
+			int kid = child[4 * node + q];
+			child[4 * node + q] = NONE;
+			gather(kid, node);
+		}
+	}
+
+	/**
+	 * Moves the rows under a node into a leaf and frees the node.
+	 * @param node is the node to empty.
+	 * @param leaf receives the rows.
+	 */
+	private void gather(int node, int leaf) {
+		if (child[4 * node] != NONE) {
+			for (int q = 0; q < 4; q++) {
+				gather(child[4 * node + q], leaf);
+			}
+		} else {
+			int i = head[node];
+			while (i != NONE) {
+				int after = next[i];
+				link(i, leaf);
+				i = after;
+			}
+		}
+		if (freeCount == free.length) free = Arrays.copyOf(free, freeCount * 2);
+		free[freeCount++] = node;
+	}
+
+	/**
+	 * Puts a row at the front of a leaf's chain.
+	 * @param i is the row.
+	 * @param leaf is the leaf.
+	 */
+	private void link(int i, int leaf) {
+		leafOf[i] = leaf;
+		prev[i] = NONE;
+		next[i] = head[leaf];
+		if (head[leaf] != NONE) prev[head[leaf]] = i;
+		head[leaf] = i;
+	}
+
+	/**
+	 * Takes a row out of its leaf's chain.
+	 * @param i is the row.
+	 */
+	private void unlink(int i) {
+		int leaf = leafOf[i];
+		if (prev[i] != NONE) {
+			next[prev[i]] = next[i];
+		} else {
+			head[leaf] = next[i];
+		}
+		if (next[i] != NONE) prev[next[i]] = prev[i];
+		leafOf[i] = NONE;
+	}
+
+	/**
+	 * Makes an empty leaf.
+	 * @param up is its parent, or NONE.
+	 * @return the new node.
+	 */
+	private int newNode(int up) {
+		int node;
+		if (freeCount > 0) {
+			node = free[--freeCount];
+		} else {
+			node = nodes++;
+			if (node == parent.length) {
+				int grown = node * 2;
+				child = Arrays.copyOf(child, 4 * grown);
+				parent = Arrays.copyOf(parent, grown);
+				head = Arrays.copyOf(head, grown);
+				count = Arrays.copyOf(count, grown);
+			}
+		}
+		Arrays.fill(child, 4 * node, 4 * node + 4, NONE);
+		parent[node] = up;
+		head[node] = NONE;
+		count[node] = 0;
+		return node;
+	}
+
+	/**
+	 * Makes room for per-row links.
+	 * @param rows is the number of rows needed.
+	 */
+	private void ensureRows(int rows) {
+		if (rows > leafOf.length) {
+			int grown = Math.max(rows, leafOf.length + (leafOf.length >> 1));
+			int old = leafOf.length;
+			leafOf = Arrays.copyOf(leafOf, grown);
+			Arrays.fill(leafOf, old, grown, NONE);
+			next = Arrays.copyOf(next, grown);
+			prev = Arrays.copyOf(prev, grown);
+		}
+	}
+
+	/**
+	 * Finds which quadrant of a square a position falls in.
+	 * @param x is the x value.
+	 * @param y is the y value.
+	 * @param ncx is the square's center x.
+	 * @param ncy is the square's center y.
+	 * @return bit 1 set for the upper x half and bit 2 for the upper y half.
+	 */
+	private static int quadrant(double x, double y, double ncx, double ncy) {
+		return (x >= ncx ? 1 : 0) | (y >= ncy ? 2 : 0);
+	}
+}
@@ -0,0 +1,94 @@
+package smallstatapp;
+
+import java.util.AbstractList;
+import java.util.List;
+
+import javafx.collections.ObservableListBase;
+
+/**
+ * A list of row numbers for showing a {@link PointStore} in a TableView.
+ * Row i is just the integer i, so the table holds no per-point objects and
+ * its cells read their values from the store's columns.
+ * @author Melinda Robertson
+ * @version 17 October 2026
+ */
+public class PointRows extends ObservableListBase<Integer> implements PointStore.Listener {
+
+	/**
+	 * The points behind the rows.
+	 */
+	private final PointStore store;
+
+	/**
+	 * Creates rows for a store and follows its changes.
+	 * @param store is the store to show.
+	 */
+	public PointRows(PointStore store) {
+		this.store = store;
+		store.addListener(this);
+	}
+
+	/**
+	 * Retrieve the row number at a position.
+	 * @param i is the position.
+	 * @return the row number, which equals the position.
+	 */
+	@Override
+	public Integer get(int i) {
+		if (i < 0 || i >= store.size()) {
+			throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + store.size());
+		}
+		return i;
+	}
+
+	/**
+	 * Retrieve the number of rows.
+	 * @return the number of points in the store.
+	 */
+	@Override
+	public int size() {
+		return store.size();
+	}
+
+	/**
+	 * Turns a store change into a list change.
+	 */
+	@Override
+	public void pointsChanged(PointStore source, int type, int from, int to) {
+		beginChange();
+		switch (type) {
+		case PointStore.ADDED:
+			nextAdd(from, to);
+			break;
+		case PointStore.REMOVED:
+			//Later rows shift down, so every row from the removal point on
+			//now shows a different point and the last row numbers are gone.
+			nextReplace(from, store.size(), numbers(from, store.size() + to - from));
+			break;
+		case PointStore.UPDATED:
+			nextReplace(from, to, numbers(from, to));
+			break;
+		}
+		endChange();
+	}
+
+	/**
+	 * Makes a list of consecutive row numbers without storing them.
+	 * @param from is the first number.
+	 * @param to is one past the last number.
+	 * @return the numbers from first to last.
+	 */
+	private static List<Integer> numbers(final int from, final int to) {
+		return new AbstractList<Integer>() {
+			@Override
+			public Integer get(int i) {
+				return from + i;
+			}
+
+			@Override
+			public int size() {
+				return to - from;
+			}
+		};
+	}
+}
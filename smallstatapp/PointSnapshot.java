@@ -0,0 +1,313 @@
+package smallstatapp;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Saves and loads a set of points with its statistics. The file is one
+ * header, which holds the point count and a summary of the statistics,
+ * then every x component and then every y component as little-endian
+ * doubles. Both columns are copied through memory maps in large blocks,
+ * and the summary lets the statistics be shown before any are computed.
+ * @author Melinda Robertson
+ * @version 17 October 2026
+ */
+public final class PointSnapshot {
+
+	/**
+	 * Summary field for the x mean.
+	 */
+	public static final int X_MEAN = 0;
+
+	/**
+	 * Summary field for the x standard deviation.
+	 */
+	public static final int X_S = 1;
+
+	/**
+	 * Summary field for the x median.
+	 */
+	public static final int X_MEDIAN = 2;
+
+	/**
+	 * Summary field for the x mode.
+	 */
+	public static final int X_MODE = 3;
+
+	/**
+	 * Summary field for the smallest x component.
+	 */
+	public static final int X_MIN = 4;
+
+	/**
+	 * Summary field for the largest x component.
+	 */
+	public static final int X_MAX = 5;
+
+	/**
+	 * Summary field for the y mean.
+	 */
+	public static final int Y_MEAN = 6;
+
+	/**
+	 * Summary field for the y standard deviation.
+	 */
+	public static final int Y_S = 7;
+
+	/**
+	 * Summary field for the y median.
+	 */
+	public static final int Y_MEDIAN = 8;
+
+	/**
+	 * Summary field for the y mode.
+	 */
+	public static final int Y_MODE = 9;
+
+	/**
+	 * Summary field for the smallest y component.
+	 */
+	public static final int Y_MIN = 10;
+
+	/**
+	 * Summary field for the largest y component.
+	 */
+	public static final int Y_MAX = 11;
+
+	/**
+	 * Summary field for the covariance.
+	 */
+	public static final int COVARIANCE = 12;
+
+	/**
+	 * Summary field for the correlation.
+	 */
+	public static final int CORRELATION = 13;
+
+	/**
+	 * Summary field for the slope of the least-squares line.
+	 */
+	public static final int SLOPE = 14;
+
+	/**
+	 * Summary field for the intercept of the least-squares line.
+	 */
+	public static final int INTERCEPT = 15;
+
+	/**
+	 * The number of summary fields.
+	 */
+	public static final int SUMMARY_SIZE = 16;
+
+	/**
+	 * Marks the start of a snapshot file: "SNAP" in ASCII.
+	 */
+	private static final int MAGIC = 0x534E4150;
+
+	/**
+	 * The layout version written by this class.
+	 */
+	private static final int VERSION = 1;
+
+	/**
+	 * The bytes before the columns: magic, version, count and summary.
+	 */
+	private static final int HEADER_BYTES = 4 + 4 + 8 + SUMMARY_SIZE * 8;
+
+	/**
+	 * The most bytes mapped at once; a whole number of doubles.
+	 */
+	private static final int CHUNK = 1 << 28;
+
+	/**
+	 * The points.
+	 */
+	private final PointStore points;
+
+	/**
+	 * The summary fields.
+	 */
+	private final double[] summary;
+
+	/**
+	 * Creates a loaded snapshot.
+	 * @param points is the points.
+	 * @param summary is the summary fields.
+	 */
+	private PointSnapshot(PointStore points, double[] summary) {
+		this.points = points;
+		this.summary = summary;
+	}
+
+	/**
+	 * Writes points and a summary of their statistics to a file, replacing
+	 * it. The statistics are computed here, so call this off the JavaFX
+	 * Application Thread for large stores.
+	 * @param file is the file to write.
+	 * @param points is the points; they must not change while this runs.
+	 * @throws IOException if the file cannot be written.
+	 */
+	public static void save(Path file, PointStore points) throws IOException {
+		double[] summary = summarize(new Statistics(points));
+		int n = points.size();
+		try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ,
+				StandardOpenOption.WRITE)) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+			header.putInt(MAGIC).putInt(VERSION).putLong(n);
+			for (double v : summary) header.putDouble(v);
+			header.flip();
+			while (header.hasRemaining()) ch.write(header);
+			writeColumn(ch, HEADER_BYTES, points.xColumn(), n);
+			writeColumn(ch, HEADER_BYTES + 8L * n, points.yColumn(), n);
+		}
+	}
+
+	/**
+	 * Reads a file written by {@link #save(Path, PointStore)}.
+	 * @param file is the file to read.
+	 * @return the points and their summary.
+	 * @throws IOException if the file cannot be read or is not a snapshot.
+	 */
+	public static PointSnapshot load(Path file) throws IOException {
+		try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+			while (header.hasRemaining()) {
+				if (ch.read(header) < 0) break;
+			}
+			header.flip();
+			if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC) {
+				throw new IOException(file + " is not a snapshot.");
+			}
+			int version = header.getInt();
+			if (version != VERSION) {
+				throw new IOException(file + " is snapshot version " + version
+						+ "; only version " + VERSION + " can be read.");
+			}
+			long count = header.getLong();
+			if (count < 0 || count > Integer.MAX_VALUE - 8
+					|| ch.size() != HEADER_BYTES + 16 * count) {
+				throw new IOException(file + " does not hold the points its header lists.");
+			}
+			double[] summary = new double[SUMMARY_SIZE];
+			for (int i = 0; i < SUMMARY_SIZE; i++) summary[i] = header.getDouble();
+
+			int n = (int) count;
+			double[] xs = new double[n];
+			double[] ys = new double[n];
+			readColumn(ch, HEADER_BYTES, xs, n);
+			readColumn(ch, HEADER_BYTES + 8L * n, ys, n);
+			return new PointSnapshot(PointStore.wrap(xs, ys, n), summary);
+		}
+	}
+
+	/**
+	 * Retrieve the points.
+	 * @return a store with no listeners.
+	 */
+	public PointStore getPoints() {
+		return points;
+	}
+
+	/**
+	 * Retrieve one summary field.
+	 * @param field is a field such as {@link #X_MEAN}.
+	 * @return the value saved with the points.
+	 */
+	public double get(int field) {
+		return summary[field];
+	}
+
+	/**
+	 * Retrieve the summary as the calcBox shows it.
+	 * @return the values in {@link MetricBindings} slot order.
+	 */
+	public double[] calcValues() {
+		double[] v = new double[MetricBindings.COUNT];
+		v[MetricBindings.X_MEAN] = summary[X_MEAN];
+		v[MetricBindings.Y_MEAN] = summary[Y_MEAN];
+		v[MetricBindings.X_MEDIAN] = summary[X_MEDIAN];
+		v[MetricBindings.Y_MEDIAN] = summary[Y_MEDIAN];
+		v[MetricBindings.X_MODE] = summary[X_MODE];
+		v[MetricBindings.Y_MODE] = summary[Y_MODE];
+		v[MetricBindings.X_RANGE] = summary[X_MAX] - summary[X_MIN];
+		v[MetricBindings.Y_RANGE] = summary[Y_MAX] - summary[Y_MIN];
+		v[MetricBindings.X_S] = summary[X_S];
+		v[MetricBindings.Y_S] = summary[Y_S];
+		v[MetricBindings.COVARIANCE] = summary[COVARIANCE];
+		v[MetricBindings.CORRELATION] = summary[CORRELATION];
+		v[MetricBindings.R_SQUARED] = summary[CORRELATION] * summary[CORRELATION];
+		v[MetricBindings.SLOPE] = summary[SLOPE];
+		v[MetricBindings.INTERCEPT] = summary[INTERCEPT];
+		return v;
+	}
+
+	/**
+	 * Collects the summary fields from statistics.
+	 * @param st is the statistics, in exact mode.
+	 * @return the fields.
+	 */
+	private static double[] summarize(Statistics st) {
+		double[] s = new double[SUMMARY_SIZE];
+		s[X_MEAN] = st.getXMean();
+		s[X_S] = st.getXs();
+		s[X_MEDIAN] = st.getXMedian();
+		s[X_MODE] = st.getXMode();
+		s[X_MIN] = st.quantile(Statistics.X, 0);
+		s[X_MAX] = st.quantile(Statistics.X, 1);
+		s[Y_MEAN] = st.getYMean();
+		s[Y_S] = st.getYs();
+		s[Y_MEDIAN] = st.getYMedian();
+		s[Y_MODE] = st.getYMode();
+		s[Y_MIN] = st.quantile(Statistics.Y, 0);
+		s[Y_MAX] = st.quantile(Statistics.Y, 1);
+		s[COVARIANCE] = st.getCovariance();
+		s[CORRELATION] = st.getCorrelation();
+		s[SLOPE] = st.getSlope();
+		s[INTERCEPT] = st.getIntercept();
+		return s;
+	}
+
+	/**
+	 * Writes a column through memory maps.
+	 * @param ch is the file.
+	 * @param start is the byte offset of the column.
+	 * @param column holds the values.
+	 * @param n is the number of values.
+	 * @throws IOException if the file cannot be written.
+	 */
+	private static void writeColumn(FileChannel ch, long start, double[] column, int n)
+			throws IOException {
+		for (int done = 0; done < n; ) {
+			int length = Math.min(n - done, CHUNK / 8);
+			DoubleBuffer out = ch.map(FileChannel.MapMode.READ_WRITE, start + 8L * done,
+					8L * length).order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+			out.put(column, done, length);
+			done += length;
+		}
+	}
+
+	/**
+	 * Reads a column through memory maps.
+	 * @param ch is the file.
+	 * @param start is the byte offset of the column.
+	 * @param column receives the values.
+	 * @param n is the number of values.
+	 * @throws IOException if the file cannot be read.
+	 */
+	private static void readColumn(FileChannel ch, long start, double[] column, int n)
+			throws IOException {
+		for (int done = 0; done < n; ) {
+			int length = Math.min(n - done, CHUNK / 8);
+			DoubleBuffer in = ch.map(FileChannel.MapMode.READ_ONLY, start + 8L * done,
+					8L * length).order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+			in.get(column, done, length);
+			done += length;
+		}
+	}
+}
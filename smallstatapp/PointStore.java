@@ -0,0 +1,348 @@
+package smallstatapp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Holds x-y points in two growable primitive columns. A point costs sixteen
+ * bytes instead of a boxed chart bean, and listeners are told about each
+ * change as one index range so bulk edits cause one notification.
+ * @author Melinda Robertson
+ * @version 17 October 2026
+ */
+public class PointStore {
+
+	/**
+	 * Change type for points appended to the end of the store.
+	 */
+	public static final int ADDED = 1;
+
+	/**
+	 * Change type for points removed from the store.
+	 * The range gives the positions they had before removal.
+	 */
+	public static final int REMOVED = 2;
+
+	/**
+	 * Change type for points whose values changed in place.
+	 */
+	public static final int UPDATED = 3;
+
+	/**
+	 * The starting capacity of an empty store.
+	 */
+	private static final int DEFAULT_CAPACITY = 16;
+
+	/**
+	 * Receives notice of changes to a store.
+	 */
+	public interface Listener {
+
+		/**
+		 * Called after the store changes.
+		 * @param store is the store that changed.
+		 * @param type is {@link #ADDED}, {@link #REMOVED} or {@link #UPDATED}.
+		 * @param from is the first index of the changed range.
+		 * @param to is one past the last index of the changed range.
+		 */
+		void pointsChanged(PointStore store, int type, int from, int to);
+	}
+
+	/**
+	 * The x components. Only the first size entries are used.
+	 */
+	private double[] x;
+
+	/**
+	 * The y components. Only the first size entries are used.
+	 */
+	private double[] y;
+
+	/**
+	 * The number of points.
+	 */
+	private int size;
+
+	/**
+	 * Finds points by value. Built on the first search, then kept up to date.
+	 */
+	private PointIndex index;
+
+	/**
+	 * The objects told about changes.
+	 */
+	private final List<Listener> listeners = new ArrayList<Listener>();
+
+	/**
+	 * Creates an empty store.
+	 */
+	public PointStore() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates an empty store with room for some points.
+	 * @param capacity is the number of points to make room for.
+	 */
+	public PointStore(int capacity) {
+		x = new double[Math.max(capacity, DEFAULT_CAPACITY)];
+		y = new double[x.length];
+	}
+
+	/**
+	 * Creates a store that takes over two filled columns. The arrays are
+	 * not copied, so the caller must not use them afterwards.
+	 * @param xs holds the x components.
+	 * @param ys holds the y components.
+	 * @param size is the number of points in the columns.
+	 * @return the store.
+	 */
+	static PointStore wrap(double[] xs, double[] ys, int size) {
+		PointStore store = new PointStore(0);
+		store.x = xs;
+		store.y = ys;
+		store.size = size;
+		return store;
+	}
+
+	/**
+	 * Registers a listener for changes.
+	 * @param l is the listener.
+	 */
+	public void addListener(Listener l) {
+		listeners.add(l);
+	}
+
+	/**
+	 * Unregisters a listener.
+	 * @param l is the listener.
+	 */
+	public void removeListener(Listener l) {
+		listeners.remove(l);
+	}
+
+	/**
+	 * Appends a point.
+	 * @param xv is the x component.
+	 * @param yv is the y component.
+	 */
+	public void add(double xv, double yv) {
+		ensureCapacity(size + 1);
+		x[size] = xv;
+		y[size] = yv;
+		if (index != null) index.add(size, xv, yv);
+		size++;
+		fire(ADDED, size - 1, size);
+	}
+
+	/**
+	 * Appends many points with a single notification.
+	 * @param xs holds the x components.
+	 * @param ys holds the y components.
+	 * @param offset is the index of the first point in the arrays.
+	 * @param length is the number of points to append.
+	 */
+	public void addAll(double[] xs, double[] ys, int offset, int length) {
+		if (length == 0) return;
+		ensureCapacity(size + length);
+		System.arraycopy(xs, offset, x, size, length);
+		System.arraycopy(ys, offset, y, size, length);
+		int from = size;
+		size += length;
+		if (index != null) {
+			for (int i = from; i < size; i++) {
+				index.add(i, x[i], y[i]);
+			}
+		}
+		fire(ADDED, from, size);
+	}
+
+	/**
+	 * Changes the x component of a point.
+	 * @param i is the index of the point.
+	 * @param xv is the new x component.
+	 */
+	public void setX(int i, double xv) {
+		checkIndex(i);
+		if (index != null) {
+			index.remove(i, x[i], y[i]);
+			index.add(i, xv, y[i]);
+		}
+		x[i] = xv;
+		fire(UPDATED, i, i + 1);
+	}
+
+	/**
+	 * Changes the y component of a point.
+	 * @param i is the index of the point.
+	 * @param yv is the new y component.
+	 */
+	public void setY(int i, double yv) {
+		checkIndex(i);
+		if (index != null) {
+			index.remove(i, x[i], y[i]);
+			index.add(i, x[i], yv);
+		}
+		y[i] = yv;
+		fire(UPDATED, i, i + 1);
+	}
+
+	/**
+	 * Removes a point in constant time. The last point moves into its
+	 * place, so listeners hear of the last index being removed and, unless
+	 * it was the last point, of index i being updated.
+	 * @param i is the index of the point.
+	 */
+	public void remove(int i) {
+		checkIndex(i);
+		int last = size - 1;
+		if (index != null) index.remove(i, x[i], y[i]);
+		if (i != last) {
+			if (index != null) index.move(last, i, x[last], y[last]);
+			x[i] = x[last];
+			y[i] = y[last];
+		}
+		size--;
+		fire(REMOVED, last, last + 1);
+		if (i != last) fire(UPDATED, i, i + 1);
+	}
+
+	/**
+	 * Removes every point.
+	 */
+	public void clear() {
+		int old = size;
+		size = 0;
+		if (index != null) index.clear();
+		if (old > 0) fire(REMOVED, 0, old);
+	}
+
+	/**
+	 * Takes over the points of another store in place of its own, without
+	 * copying them. Nothing may use the other store afterwards.
+	 * @param other is the store whose points are taken.
+	 */
+	void adopt(PointStore other) {
+		//Listeners read the size, so the old rows go before the new ones come.
+		clear();
+		x = other.x;
+		y = other.y;
+		size = other.size;
+		index = null;
+		if (size > 0) fire(ADDED, 0, size);
+	}
+
+	/**
+	 * Copies the points into a new store with no listeners.
+	 * The copy can be handed to another thread.
+	 * @return the copy.
+	 */
+	public PointStore snapshot() {
+		PointStore copy = new PointStore(size);
+		System.arraycopy(x, 0, copy.x, 0, size);
+		System.arraycopy(y, 0, copy.y, 0, size);
+		copy.size = size;
+		return copy;
+	}
+
+	/**
+	 * Finds a point with the given components in constant time.
+	 * Components match as {@link Double#compare(double, double)} does.
+	 * The first search builds a hash index that later edits keep current.
+	 * @param xv is the x component.
+	 * @param yv is the y component.
+	 * @return the index of the point, or -1 if there is none.
+	 */
+	public int indexOf(double xv, double yv) {
+		if (index == null) {
+			index = new PointIndex();
+			for (int i = 0; i < size; i++) {
+				index.add(i, x[i], y[i]);
+			}
+		}
+		return index.find(xv, yv);
+	}
+
+	/**
+	 * Retrieve the x component of a point.
+	 * @param i is the index of the point.
+	 * @return the x component.
+	 */
+	public double getX(int i) {
+		checkIndex(i);
+		return x[i];
+	}
+
+	/**
+	 * Retrieve the y component of a point.
+	 * @param i is the index of the point.
+	 * @return the y component.
+	 */
+	public double getY(int i) {
+		checkIndex(i);
+		return y[i];
+	}
+
+	/**
+	 * Retrieve the number of points.
+	 * @return the size.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Retrieve the backing x column. Only the first {@link #size()} entries
+	 * are points. The array is replaced when the store grows, so do not keep it,
+	 * and do not write to it.
+	 * @return the x components.
+	 */
+	public double[] xColumn() {
+		return x;
+	}
+
+	/**
+	 * Retrieve the backing y column. Only the first {@link #size()} entries
+	 * are points. The array is replaced when the store grows, so do not keep it,
+	 * and do not write to it.
+	 * @return the y components.
+	 */
+	public double[] yColumn() {
+		return y;
+	}
+
+	/**
+	 * Grows the columns to hold at least a number of points.
+	 * @param capacity is the number of points needed.
+	 */
+	private void ensureCapacity(int capacity) {
+		if (capacity > x.length) {
+			int grown = Math.max(capacity, x.length + (x.length >> 1));
+			x = Arrays.copyOf(x, grown);
+			y = Arrays.copyOf(y, grown);
+		}
+	}
+
+	/**
+	 * Checks that an index refers to a point.
+	 * @param i is the index.
+	 */
+	private void checkIndex(int i) {
+		if (i < 0 || i >= size) {
+			throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size);
+		}
+	}
+
+	/**
+	 * Tells every listener about a change.
+	 * @param type is the kind of change.
+	 * @param from is the first index of the changed range.
+	 * @param to is one past the last index of the changed range.
+	 */
+	private void fire(int type, int from, int to) {
+		for (int i = 0; i < listeners.size(); i++) {
+			listeners.get(i).pointsChanged(this, type, from, to);
+		}
+	}
+}
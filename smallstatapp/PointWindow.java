@@ -0,0 +1,231 @@
+package smallstatapp;
+
+import java.util.Arrays;
+
+/**
+ * Remembers the order points arrived in so the oldest can be dropped once
+ * there are more than a set number or they are older than a set age. The
+ * points are kept in a ring buffer with their arrival times, so adding and
+ * expiring a point take constant time. Removing or changing a point out of
+ * order is a search, since it only happens when the user does it.
+ * @author Melinda Robertson
+ * @version 17 October 2026
+ */
+public class PointWindow {
+
+	/**
+	 * Marks a removed point.
+	 */
+	private static final long REMOVED = Long.MIN_VALUE;
+
+	/**
+	 * Receives the points that fall out of the window.
+	 */
+	public interface Sink {
+
+		/**
+		 * Called for each point dropped, oldest first.
+		 * @param x is the x component.
+		 * @param y is the y component.
+		 */
+		void evicted(double x, double y);
+	}
+
+	/**
+	 * The x components, oldest at head.
+	 */
+	private double[] x = new double[16];
+
+	/**
+	 * The y components, oldest at head.
+	 */
+	private double[] y = new double[16];
+
+	/**
+	 * When each point arrived, in nanoseconds. Removed points are marked
+	 * with {@link Long#MIN_VALUE}.
+	 */
+	private long[] time = new long[16];
+
+	/**
+	 * The slot of the oldest point.
+	 */
+	private int head;
+
+	/**
+	 * The number of slots in use, removed points included.
+	 */
+	private int used;
+
+	/**
+	 * The number of points not removed.
+	 */
+	private int size;
+
+	/**
+	 * The most points kept, or 0 for no limit.
+	 */
+	private int maxPoints;
+
+	/**
+	 * The oldest a point may get in nanoseconds, or 0 for no limit.
+	 */
+	private long maxAge;
+
+	/**
+	 * Sets the limits. Points over the new limits are dropped on the next
+	 * call to {@link #expire(long, Sink)}.
+	 * @param maxPoints is the most points kept, or 0 for no limit.
+	 * @param maxAge is the oldest a point may get in nanoseconds, or 0.
+	 */
+	public void setLimits(int maxPoints, long maxAge) {
+		this.maxPoints = maxPoints;
+		this.maxAge = maxAge;
+	}
+
+	/**
+	 * Retrieve whether either limit is set.
+	 * @return true if points are ever dropped.
+	 */
+	public boolean isLimited() {
+		return maxPoints > 0 || maxAge > 0;
+	}
+
+	/**
+	 * Retrieve the most points kept.
+	 * @return the limit, or 0 for none.
+	 */
+	public int getMaxPoints() {
+		return maxPoints;
+	}
+
+	/**
+	 * Adds the newest point.
+	 * @param xv is the x component.
+	 * @param yv is the y component.
+	 * @param now is the arrival time in nanoseconds, as from System.nanoTime.
+	 */
+	public void add(double xv, double yv, long now) {
+		if (used == x.length) grow();
+		int slot = (head + used) % x.length;
+		x[slot] = xv;
+		y[slot] = yv;
+		time[slot] = now;
+		used++;
+		size++;
+	}
+
+	/**
+	 * Drops the oldest points until the window is within its limits.
+	 * @param now is the current time in nanoseconds.
+	 * @param sink receives each dropped point.
+	 */
+	public void expire(long now, Sink sink) {
+		while (used > 0) {
+			if (time[head] != REMOVED) {
+				boolean full = maxPoints > 0 && size > maxPoints;
+				boolean old = maxAge > 0 && now - time[head] > maxAge;
+				if (!full && !old) return;
+				size--;
+				sink.evicted(x[head], y[head]);
+			}
+			head = (head + 1) % x.length;
+			used--;
+		}
+	}
+
+	/**
+	 * Forgets the oldest point with the given components, as when the user
+	 * removes it.
+	 * @param xv is the x component.
+	 * @param yv is the y component.
+	 * @return true if a point was found.
+	 */
+	public boolean remove(double xv, double yv) {
+		int slot = find(xv, yv);
+		if (slot < 0) return false;
+		time[slot] = REMOVED;
+		size--;
+		return true;
+	}
+
+	/**
+	 * Changes the oldest point with the given components, keeping its place
+	 * and arrival time.
+	 * @param oldX is the x component now.
+	 * @param oldY is the y component now.
+	 * @param newX is the new x component.
+	 * @param newY is the new y component.
+	 * @return true if a point was found.
+	 */
+	public boolean replace(double oldX, double oldY, double newX, double newY) {
+		int slot = find(oldX, oldY);
+		if (slot < 0) return false;
+		x[slot] = newX;
+		y[slot] = newY;
+		return true;
+	}
+
+	/**
+	 * Forgets every point.
+	 */
+	public void clear() {
+		head = 0;
+		used = 0;
+		size = 0;
+	}
+
+	/**
+	 * Retrieve the number of points in the window.
+	 * @return the size.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Finds the oldest slot holding a point.
+	 * @param xv is the x component.
+	 * @param yv is the y component.
+	 * @return the slot, or -1 if there is none.
+	 */
+	private int find(double xv, double yv) {
+		for (int i = 0; i < used; i++) {
+			int slot = (head + i) % x.length;
+			if (time[slot] != REMOVED && Double.compare(x[slot], xv) == 0
+					&& Double.compare(y[slot], yv) == 0) {
+				return slot;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Doubles the ring, moving the oldest point to the first slot.
+	 */
+	private void grow() {
+		int n = x.length;
+		x = unwrap(x, n * 2);
+		y = unwrap(y, n * 2);
+		long[] t = new long[n * 2];
+		for (int i = 0; i < used; i++) {
+			t[i] = time[(head + i) % n];
+		}
+		time = t;
+		head = 0;
+	}
+
+	/**
+	 * Copies a ring into a larger array with the oldest point first.
+	 * @param ring is the ring.
+	 * @param length is the new length.
+	 * @return the copy.
+	 */
+	private double[] unwrap(double[] ring, int length) {
+		double[] copy = Arrays.copyOf(ring, length);
+		int tail = ring.length - head;
+		System.arraycopy(ring, head, copy, 0, tail);
+		System.arraycopy(ring, 0, copy, tail, head);
+		return copy;
+	}
+}
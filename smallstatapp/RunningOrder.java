@@ -0,0 +1,293 @@
+package smallstatapp;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the median, minimum and maximum of a changing set of values in
+ * logarithmic time per change, for sliding windows where values come and go
+ * all the time. The lower half of the values is kept in a max-heap and the
+ * upper half in a min-heap, so the median is always at the top of one or
+ * both; two more heaps hold the extremes. Removed values are not searched
+ * for: each heap notes them and drops them once they reach its top, and
+ * rebuilds itself if the noted values pile up.
+ * @author Melinda Robertson
+ * @version 17 October 2026
+ */
+public class RunningOrder {
+
+	/**
+	 * A binary heap of doubles with lazy removal.
+	 */
+	private static class Heap {
+
+		/**
+		 * The heap rebuilds once it holds this many more removed values than
+		 * live ones, so memory stays in proportion to the live values.
+		 */
+		private static final int SLACK = 32;
+
+		/**
+		 * True for a max-heap, false for a min-heap.
+		 */
+		private final boolean max;
+
+		/**
+		 * The values in heap order, including removed ones not yet dropped.
+		 */
+		private double[] values = new double[16];
+
+		/**
+		 * The number of entries in values.
+		 */
+		private int size;
+
+		/**
+		 * Values removed but still in the heap.
+		 */
+		private final FrequencyMap removed = new FrequencyMap();
+
+		/**
+		 * The number of removed values still in the heap.
+		 */
+		private int removedCount;
+
+		/**
+		 * Creates an empty heap.
+		 * @param max is true for a max-heap.
+		 */
+		Heap(boolean max) {
+			this.max = max;
+		}
+
+		/**
+		 * Adds a value.
+		 * @param v is the value.
+		 */
+		void push(double v) {
+			if (size == values.length) values = Arrays.copyOf(values, size * 2);
+			values[size] = v;
+			siftUp(size++);
+		}
+
+		/**
+		 * Removes the top value.
+		 * @return the value.
+		 */
+		double pop() {
+			double top = values[0];
+			values[0] = values[--size];
+			siftDown(0);
+			prune();
+			return top;
+		}
+
+		/**
+		 * Retrieve the top value, which is always live.
+		 * @return the largest value of a max-heap, the smallest of a min-heap.
+		 */
+		double top() {
+			return values[0];
+		}
+
+		/**
+		 * Notes that a value in the heap has been removed.
+		 * @param v is the value.
+		 */
+		void delete(double v) {
+			removed.increment(v);
+			removedCount++;
+			prune();
+			if (removedCount > size - removedCount + SLACK) purge();
+		}
+
+		/**
+		 * Retrieve the number of live values.
+		 * @return the count.
+		 */
+		int live() {
+			return size - removedCount;
+		}
+
+		/**
+		 * Drops removed values from the top.
+		 */
+		private void prune() {
+			while (size > 0 && removed.decrement(values[0])) {
+				removedCount--;
+				values[0] = values[--size];
+				siftDown(0);
+			}
+		}
+
+		/**
+		 * Drops every removed value and rebuilds the heap.
+		 */
+		private void purge() {
+			int kept = 0;
+			for (int i = 0; i < size; i++) {
+				if (!removed.decrement(values[i])) values[kept++] = values[i];
+			}
+			size = kept;
+			removedCount = 0;
+			removed.clear();
+			for (int i = size / 2 - 1; i >= 0; i--) siftDown(i);
+			if (values.length > 64 && size < values.length / 4) {
+				values = Arrays.copyOf(values, values.length / 2);
+			}
+		}
+
+		/**
+		 * Checks the heap order of two values.
+		 * @param a is the value that should be nearer the top.
+		 * @param b is the other value.
+		 * @return true if a belongs above b.
+		 */
+		private boolean above(double a, double b) {
+			return max ? a > b : a < b;
+		}
+
+		/**
+		 * Moves an entry up until its parent belongs above it.
+		 * @param i is the entry.
+		 */
+		private void siftUp(int i) {
+			double v = values[i];
+			while (i > 0) {
+				int parent = (i - 1) >>> 1;
+				if (!above(v, values[parent])) break;
+				values[i] = values[parent];
+				i = parent;
+			}
+			values[i] = v;
+		}
+
+		/**
+		 * Moves an entry down until it belongs above its children.
+		 * @param i is the entry.
+		 */
+		private void siftDown(int i) {
+			double v = values[i];
+			int half = size >>> 1;
+			while (i < half) {
+				int child = 2 * i + 1;
+				if (child + 1 < size && above(values[child + 1], values[child])) child++;
+				if (!above(values[child], v)) break;
+				values[i] = values[child];
+				i = child;
+			}
+			values[i] = v;
+		}
+	}
+
+	/**
+	 * The lower half of the values, largest on top.
+	 */
+	private final Heap low = new Heap(true);
+
+	/**
+	 * The upper half of the values, smallest on top.
+	 */
+	private final Heap high = new Heap(false);
+
+	/**
+	 * Every value, smallest on top.
+	 */
+	private final Heap smallest = new Heap(false);
+
+	/**
+	 * Every value, largest on top.
+	 */
+	private final Heap largest = new Heap(true);
+
+	/**
+	 * Adds a value.
+	 * @param v is the value.
+	 */
+	public void add(double v) {
+		if (low.live() == 0 || v <= low.top()) {
+			low.push(v);
+		} else {
+			high.push(v);
+		}
+		smallest.push(v);
+		largest.push(v);
+		balance();
+	}
+
+	/**
+	 * Removes a value. The caller must know the value is present.
+	 * @param v is the value.
+	 */
+	public void remove(double v) {
+		//Everything in the lower half is at most its top, everything above it
+		//is at least its top, so the side that holds v is known.
+		if (low.live() > 0 && v <= low.top()) {
+			low.delete(v);
+		} else {
+			high.delete(v);
+		}
+		smallest.delete(v);
+		largest.delete(v);
+		balance();
+	}
+
+	/**
+	 * Retrieve the middle value, the mean of the two middle values if
+	 * there is an even number.
+	 * @return the median, or NaN if there are no values.
+	 */
+	public double median() {
+		if (low.live() == 0) return Double.NaN;
+		if (low.live() > high.live()) return low.top();
+		return (low.top() + high.top()) / 2;
+	}
+
+	/**
+	 * Retrieve a quantile. Only the median and the extremes are kept.
+	 * @param p is 0, 0.5 or 1.
+	 * @return the quantile, or NaN if there are no values.
+	 */
+	public double quantile(double p) {
+		if (p == 0) return min();
+		if (p == 0.5) return median();
+		if (p == 1) return max();
+		throw new IllegalStateException("Only the median and extremes are kept: " + p);
+	}
+
+	/**
+	 * Retrieve the smallest value.
+	 * @return the minimum, or NaN if there are no values.
+	 */
+	public double min() {
+		return smallest.live() == 0 ? Double.NaN : smallest.top();
+	}
+
+	/**
+	 * Retrieve the largest value.
+	 * @return the maximum, or NaN if there are no values.
+	 */
+	public double max() {
+		return largest.live() == 0 ? Double.NaN : largest.top();
+	}
+
+	/**
+	 * Retrieve the number of values.
+	 * @return the size.
+	 */
+	public int size() {
+		return smallest.live();
+	}
+
+	/**
+	 * Moves values between the halves so the lower half has the same number
+	 * of values as the upper half, or one more.
+	 */
+	private void balance() {
+		while (low.live() > high.live() + 1) {
+			high.push(low.pop());
+		}
+		while (low.live() < high.live()) {
+			low.push(high.pop());
+		}
+	}
+}
@@ -0,0 +1,114 @@
+package smallstatapp;
+
+import java.util.Arrays;
+
+/**
+ * Finds the k-th smallest value of an array without sorting all of it.
+ * Uses Floyd-Rivest selection, which samples the range to pick pivots close
+ * to the answer and so runs in linear expected time. If a range stops
+ * shrinking the remaining part is sorted instead, which bounds the worst case.
+ * @author Melinda Robertson
+ * @version 17 October 2026
+ */
+public final class Selection {
+
+	/**
+	 * Ranges larger than this are narrowed down by sampling first.
+	 */
+	private static final int SAMPLE_CUTOFF = 600;
+
+	/**
+	 * How many partitioning passes are allowed before falling back to a sort.
+	 */
+	private static final int MAX_PASSES = 64;
+
+	/**
+	 * No instances.
+	 */
+	private Selection() {
+	}
+
+	/**
+	 * Rearranges the range so that a[k] holds the value it would have if the
+	 * range were sorted. Values before k are no larger and values after k are
+	 * no smaller. The values must not be NaN.
+	 * @param a is the array to rearrange.
+	 * @param left is the first index of the range.
+	 * @param right is the last index of the range, inclusive.
+	 * @param k is the index to select, between left and right.
+	 */
+	public static void select(double[] a, int left, int right, int k) {
+		if (k < left || k > right) {
+			throw new IllegalArgumentException("k is outside the range: " + k);
+		}
+		int passes = 0;
+		while (right > left) {
+			if (++passes > MAX_PASSES) {
+				Arrays.sort(a, left, right + 1);
+				return;
+			}
+			if (right - left > SAMPLE_CUTOFF) {
+				//Recurse on a small sample to move good pivots near k.
+				double n = right - left + 1;
+				double i = k - left + 1;
+				double z = Math.log(n);
+				double s = 0.5 * Math.exp(2 * z / 3);
+				double sd = 0.5 * Math.sqrt(z * s * (n - s) / n) * Math.signum(i - n / 2);
+				int newLeft = (int) Math.max(left, k - i * s / n + sd);
+				int newRight = (int) Math.min(right, k + (n - i) * s / n + sd);
+				select(a, newLeft, newRight, k);
+			}
+
+			//Partition around a[k].
+			double t = a[k];
+			int i = left;
+			int j = right;
+			swap(a, left, k);
+			if (a[right] > t) swap(a, right, left);
+			while (i < j) {
+				swap(a, i, j);
+				i++;
+				j--;
+				while (a[i] < t) i++;
+				while (a[j] > t) j--;
+			}
+			if (a[left] == t) {
+				swap(a, left, j);
+			} else {
+				j++;
+				swap(a, j, right);
+			}
+
+			//Keep the side that holds k.
+			if (j <= k) left = j + 1;
+			if (k <= j) right = j - 1;
+		}
+	}
+
+	/**
+	 * Finds the smallest value in a range.
+	 * @param a is the array to search.
+	 * @param from is the first index, inclusive.
+	 * @param to is the last index, exclusive.
+	 * @return the minimum of the range.
+	 */
+	public static double min(double[] a, int from, int to) {
+		double min = a[from];
+		for (int i = from + 1; i < to; i++) {
+			if (a[i] < min) min = a[i];
+		}
+		return min;
+	}
+
+	/**
+	 * Swaps two entries of an array.
+	 * @param a is the array.
+	 * @param i is one index.
+	 * @param j is the other index.
+	 */
+	private static void swap(double[] a, int i, int j) {
+		double t = a[i];
+		a[i] = a[j];
+		a[j] = t;
+	}
+}
@@ -0,0 +1,246 @@
+package smallstatapp;
+
+import java.util.Arrays;
+
+/**
+ * A column of doubles for order statistics. A column loaded in bulk is left
+ * unsorted and answers quantiles by selection on a scratch copy, which takes
+ * linear time. Once a value is inserted or removed the column sorts itself
+ * and then stays in ascending order, with each edit finding its slot by a
+ * binary search.
+ * @author Melinda Robertson
+ * @version 17 October 2026
+ */
+public class SortedColumn {
+
+	/**
+	 * The starting capacity of an empty column.
+	 */
+	private static final int DEFAULT_CAPACITY = 16;
+
+	/**
+	 * The values. Only the first size entries are used.
+	 */
+	private double[] values;
+
+	/**
+	 * The number of values in the column.
+	 */
+	private int size;
+
+	/**
+	 * True if the values are in ascending order.
+	 */
+	private boolean sorted;
+
+	/**
+	 * The smallest value, kept while the column is unsorted.
+	 */
+	private double min;
+
+	/**
+	 * The largest value, kept while the column is unsorted.
+	 */
+	private double max;
+
+	/**
+	 * A copy of the values that selection is allowed to rearrange.
+	 */
+	private double[] scratch;
+
+	/**
+	 * True if the scratch copy holds the current values.
+	 * Earlier selections leave it partly ordered, which speeds up later ones.
+	 */
+	private boolean scratchValid;
+
+	/**
+	 * Creates an empty column.
+	 */
+	public SortedColumn() {
+		values = new double[DEFAULT_CAPACITY];
+		sorted = true;
+	}
+
+	/**
+	 * Replaces the contents with the first length values of an array.
+	 * The values are copied but not sorted.
+	 * @param src holds the values in any order.
+	 * @param length is how many values to take.
+	 */
+	public void load(double[] src, int length) {
+		load(src, 0, length);
+	}
+
+	/**
+	 * Replaces the contents with part of an array.
+	 * The values are copied but not sorted.
+	 * @param src holds the values in any order.
+	 * @param from is the first index, inclusive.
+	 * @param to is the last index, exclusive.
+	 */
+	public void load(double[] src, int from, int to) {
+		int length = to - from;
+		values = Arrays.copyOfRange(src, from, from + Math.max(length, DEFAULT_CAPACITY));
+		size = length;
+		sorted = size < 2;
+		scratchValid = false;
+		if (!sorted) {
+			min = values[0];
+			max = values[0];
+			for (int i = 1; i < size; i++) {
+				if (values[i] < min) min = values[i];
+				if (values[i] > max) max = values[i];
+			}
+		}
+	}
+
+	/**
+	 * Inserts a value in its sorted position.
+	 * @param v is the value to insert.
+	 */
+	public void insert(double v) {
+		ensureSorted();
+		int i = Arrays.binarySearch(values, 0, size, v);
+		if (i < 0) i = -(i + 1);
+		if (size == values.length) {
+			values = Arrays.copyOf(values, size + (size >> 1) + 1);
+		}
+		System.arraycopy(values, i, values, i + 1, size - i);
+		values[i] = v;
+		size++;
+		scratchValid = false;
+	}
+
+	/**
+	 * Removes one copy of a value.
+	 * @param v is the value to remove.
+	 * @return true if the value was in the column.
+	 */
+	public boolean remove(double v) {
+		ensureSorted();
+		int i = Arrays.binarySearch(values, 0, size, v);
+		if (i < 0) return false;
+		System.arraycopy(values, i + 1, values, i, size - i - 1);
+		size--;
+		scratchValid = false;
+		return true;
+	}
+
+	/**
+	 * Removes every value.
+	 */
+	public void clear() {
+		size = 0;
+		sorted = true;
+		scratchValid = false;
+	}
+
+	/**
+	 * Retrieve the value at a position in sorted order.
+	 * This sorts the column if it is not sorted yet.
+	 * @param i is the position, starting at zero.
+	 * @return the i-th smallest value.
+	 */
+	public double get(int i) {
+		if (i < 0 || i >= size) {
+			throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size);
+		}
+		ensureSorted();
+		return values[i];
+	}
+
+	/**
+	 * Retrieve the value at a position in sorted order without sorting.
+	 * @param k is the position, starting at zero.
+	 * @return the k-th smallest value.
+	 */
+	public double select(int k) {
+		if (k < 0 || k >= size) {
+			throw new IndexOutOfBoundsException("Index: " + k + ", Size: " + size);
+		}
+		if (sorted) return values[k];
+		double[] s = selectScratch(k);
+		return s[k];
+	}
+
+	/**
+	 * Retrieve a quantile, interpolating linearly between the two closest
+	 * ranks. A p of 0.5 gives the median.
+	 * @param p is the fraction of values at or below the result, from 0 to 1.
+	 * @return the quantile, or NaN if the column is empty.
+	 */
+	public double quantile(double p) {
+		if (p < 0 || p > 1 || Double.isNaN(p)) {
+			throw new IllegalArgumentException("p must be between 0 and 1: " + p);
+		}
+		if (size == 0) return Double.NaN;
+		double h = (size - 1) * p;
+		int lo = (int) h;
+		double frac = h - lo;
+		if (sorted) {
+			double below = values[lo];
+			return frac == 0 ? below : below + frac * (values[lo + 1] - below);
+		}
+		//After selecting lo the next rank is the smallest value to its right.
+		double[] s = selectScratch(lo);
+		double below = s[lo];
+		if (frac == 0) return below;
+		return below + frac * (Selection.min(s, lo + 1, size) - below);
+	}
+
+	/**
+	 * Retrieve the number of values.
+	 * @return the size.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Retrieve the smallest value.
+	 * @return the minimum, or NaN if the column is empty.
+	 */
+	public double min() {
+		if (size == 0) return Double.NaN;
+		return sorted ? values[0] : min;
+	}
+
+	/**
+	 * Retrieve the largest value.
+	 * @return the maximum, or NaN if the column is empty.
+	 */
+	public double max() {
+		if (size == 0) return Double.NaN;
+		return sorted ? values[size - 1] : max;
+	}
+
+	/**
+	 * Selects the k-th smallest value in the scratch copy.
+	 * @param k is the position to select.
+	 * @return the scratch array with the k-th smallest value at k.
+	 */
+	private double[] selectScratch(int k) {
+		if (!scratchValid) {
+			if (scratch == null || scratch.length < size) {
+				scratch = new double[values.length];
+			}
+			System.arraycopy(values, 0, scratch, 0, size);
+			scratchValid = true;
+		}
+		Selection.select(scratch, 0, size - 1, k);
+		return scratch;
+	}
+
+	/**
+	 * Sorts the values if they were loaded unsorted.
+	 */
+	private void ensureSorted() {
+		if (!sorted) {
+			Arrays.sort(values, 0, size);
+			sorted = true;
+			scratch = null;
+			scratchValid = false;
+		}
+	}
+}
@@ -1,57 +1,446 @@
-import java.util.Arrays;
+package smallstatapp;
 
-import javafx.collections.ObservableList;
-import javafx.scene.chart.XYChart;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 /**
- * Calculates statistics from XYChart data that are numbers.
+ * Calculates statistics of x-y points held in primitive arrays. Nothing
+ * here needs JavaFX; {@link ChartStatistics} adapts chart data, and
+ * {@link Summary} gives one column's values without keeping any state.
+ * Statistics can be built once from a list of points or kept up to date
+ * as points are added and removed. For large data sets, sketch mode keeps
+ * bounded-size sketches in place of every value and gives approximate
+ * medians, quantiles and modes with error bounds. Only these statistics
+ * stay bounded; whoever holds the points still holds all of them. For sliding
+ * windows, where points are removed as fast as they are added, running
+ * mode keeps the median and range in heaps so every change costs
+ * logarithmic time; it answers no other quantiles.
  * @author Melinda Robertson
  * @version 28 March 2015
  */
 public class Statistics {
 	
 	/**
-	 * The x components of the XYChart.
+	 * Selects the x component in {@link #quantile(int, double)}.
 	 */
-	private double[] x;
+	public static final int X = 0;
 	
 	/**
-	 * The y components of the XYChart.
+	 * Selects the y component in {@link #quantile(int, double)}.
 	 */
-	private double[] y;
+	public static final int Y = 1;
 	
 	/**
-	 * The mean values for both x and y components.
+	 * Data with at least this many points is summarized on a fork/join pool.
 	 */
-	private double[] mean;
+	public static final int PARALLEL_THRESHOLD = 100000;
+	
+	/**
+	 * Count-min cells per row for each unit of sketch size.
+	 */
+	private static final int COUNT_WIDTH_PER_SIZE = 8;
+	
+	/**
+	 * The x components in ascending order.
+	 */
+	private SortedColumn x;
+	
+	/**
+	 * The y components in ascending order.
+	 */
+	private SortedColumn y;
+	
+	/**
+	 * The running mean and squared deviations of the x components.
+	 */
+	private Moments xMoments;
+	
+	/**
+	 * The running mean and squared deviations of the y components.
+	 */
+	private Moments yMoments;
+	
+	/**
+	 * The running co-deviation of the pairs, for the covariance and line.
+	 */
+	private PairedMoments xyMoments;
+	
+	/**
+	 * The x quantile sketch, or null in exact mode.
+	 */
+	private KllSketch xSketch;
+	
+	/**
+	 * The y quantile sketch, or null in exact mode.
+	 */
+	private KllSketch ySketch;
+	
+	/**
+	 * The x frequency sketch, or null in exact mode.
+	 */
+	private CountMinSketch xCounts;
+	
+	/**
+	 * The y frequency sketch, or null in exact mode.
+	 */
+	private CountMinSketch yCounts;
+	
+	/**
+	 * The x median and extremes in running mode, or null.
+	 */
+	private RunningOrder xOrder;
+	
+	/**
+	 * The y median and extremes in running mode, or null.
+	 */
+	private RunningOrder yOrder;
+	
+	/**
+	 * How often each x component occurs.
+	 */
+	private FrequencyMap xFrequency;
+	
+	/**
+	 * How often each y component occurs.
+	 */
+	private FrequencyMap yFrequency;
 
+	/**
+	 * Creates empty statistics that are updated one point at a time
+	 * with {@link #add(double, double)} and {@link #remove(double, double)}.
+	 */
+	public Statistics() {
+		x = new SortedColumn();
+		y = new SortedColumn();
+		xMoments = new Moments();
+		yMoments = new Moments();
+		xyMoments = new PairedMoments();
+		xFrequency = new FrequencyMap();
+		yFrequency = new FrequencyMap();
+	}
+
+	/**
+	 * Creates empty statistics in sketch mode. Their size stays bounded
+	 * however many points are added, but points cannot be removed. The mean,
+	 * deviation, range and paired values stay exact.
+	 * @param sketchSize trades memory for accuracy; {@link KllSketch#DEFAULT_K}
+	 * gives quantiles within about 1.3% of the true rank.
+	 */
+	public Statistics(int sketchSize) {
+		xMoments = new Moments();
+		yMoments = new Moments();
+		xyMoments = new PairedMoments();
+		xSketch = new KllSketch(sketchSize);
+		ySketch = new KllSketch(sketchSize);
+		xCounts = new CountMinSketch(COUNT_WIDTH_PER_SIZE * sketchSize);
+		yCounts = new CountMinSketch(COUNT_WIDTH_PER_SIZE * sketchSize);
+	}
+	
 	/**
 	 * Creates a reference for retrieving statistical information.
-	 * Input data is sorted in ascending order and the mean is calculated.
-	 * @param data is the data to reference.
-	 */
-	public Statistics(ObservableList<XYChart.Data<Number, Number>> data) {
-		double[][] array = new double[2][data.size()];
-		for (int i = 0; i < array[0].length; i++ ) {
-			array[0][i] = (Double) data.get(i).getXValue();
-			array[1][i] = (Double) data.get(i).getYValue();
-		}
-		
-		x = Arrays.copyOf(array[0], array[0].length);
-		y = Arrays.copyOf(array[1], array[1].length);
-		
-		Arrays.sort(x);
-		Arrays.sort(y);
-		
-		mean = new double[2];
-		
-		for (int i = 0; i < x.length; i++) {
-			mean[0] += x[i];
-			mean[1] += y[i];
-		}
-		
-		mean[0] = mean[0] / x.length;
-		mean[1] = mean[1] / y.length;
+	 * The mean is calculated and the data is copied without sorting;
+	 * medians and quantiles are found by selection when asked for.
+	 * @param xs holds the x components.
+	 * @param ys holds the y components, one for each x.
+	 */
+	public Statistics(double[] xs, double[] ys) {
+		this();
+		if (xs.length != ys.length) {
+			throw new IllegalArgumentException("Got " + xs.length + " x components and "
+					+ ys.length + " y components.");
+		}
+		load(xs, ys, xs.length, ForkJoinPool.commonPool());
+	}
+	
+	/**
+	 * Creates a reference for retrieving statistical information
+	 * straight from the primitive columns of a point store.
+	 * @param store is the data to reference.
+	 */
+	public Statistics(PointStore store) {
+		this(store, ForkJoinPool.commonPool());
+	}
+	
+	/**
+	 * Creates a reference for retrieving statistical information from a
+	 * point store, using the given pool when the store is large.
+	 * @param store is the data to reference.
+	 * @param pool runs the work for large stores.
+	 */
+	public Statistics(PointStore store, ForkJoinPool pool) {
+		this();
+		load(store.xColumn(), store.yColumn(), store.size(), pool);
+	}
+	
+	/**
+	 * Creates empty statistics in running mode, for windows whose points
+	 * are added and removed all the time. Every change costs logarithmic
+	 * time; only the median and extremes are kept of the quantiles.
+	 * @return the statistics.
+	 */
+	public static Statistics running() {
+		Statistics st = new Statistics();
+		st.x = null;
+		st.y = null;
+		st.xOrder = new RunningOrder();
+		st.yOrder = new RunningOrder();
+		return st;
+	}
+	
+	/**
+	 * Creates statistics in running mode from the points of a store.
+	 * @param store is the data to start with.
+	 * @return the statistics.
+	 */
+	public static Statistics running(PointStore store) {
+		Statistics st = running();
+		double[] xs = store.xColumn();
+		double[] ys = store.yColumn();
+		for (int i = 0; i < store.size(); i++) {
+			st.add(xs[i], ys[i]);
+		}
+		return st;
+	}
+	
+	/**
+	 * Creates statistics in sketch mode from the points of a store.
+	 * @param store is the data to summarize.
+	 * @param sketchSize trades memory for accuracy.
+	 */
+	public Statistics(PointStore store, int sketchSize) {
+		this(sketchSize);
+		double[] xs = store.xColumn();
+		double[] ys = store.yColumn();
+		for (int i = 0; i < store.size(); i++) {
+			add(xs[i], ys[i]);
+		}
+	}
+	
+	/**
+	 * Fills empty statistics from two columns. The moments of both axes
+	 * come from one {@link MomentKernels} pass. Past the parallel threshold
+	 * that pass runs in chunks on the pool while each column's value counts
+	 * are built on a worker of their own.
+	 * @param xs holds the x components.
+	 * @param ys holds the y components.
+	 * @param length is the number of points.
+	 * @param pool runs the work for large columns.
+	 */
+	private void load(final double[] xs, final double[] ys, final int length,
+			ForkJoinPool pool) {
+		PairedMoments moments;
+		if (length < PARALLEL_THRESHOLD) {
+			moments = MomentKernels.summarize(xs, ys, 0, length, null);
+			countAll(xFrequency, xs, length);
+			countAll(yFrequency, ys, length);
+		} else {
+			ForkJoinTask<PairedMoments> task =
+					pool.submit(new ParallelPairedMoments(xs, ys, 0, length));
+			ForkJoinTask<?> xCount = pool.submit(() -> countAll(xFrequency, xs, length));
+			ForkJoinTask<?> yCount = pool.submit(() -> countAll(yFrequency, ys, length));
+			moments = task.join();
+			xCount.join();
+			yCount.join();
+		}
+		//One pass gives both axes and the pairs.
+		xMoments.merge(moments.xMoments());
+		yMoments.merge(moments.yMoments());
+		xyMoments.merge(moments);
+		x.load(xs, length);
+		y.load(ys, length);
+	}
+	
+	/**
+	 * Counts every value of a column.
+	 * @param counts receives the values.
+	 * @param values is the column.
+	 * @param length is the number of values.
+	 */
+	private static void countAll(FrequencyMap counts, double[] values, int length) {
+		for (int i = 0; i < length; i++) {
+			counts.increment(values[i]);
+		}
+	}
+	
+	/**
+	 * Adds a point. The mean, deviation and range are updated in constant
+	 * time and the point is placed in order for the median and mode.
+	 * @param xv is the x component.
+	 * @param yv is the y component.
+	 */
+	public void add(double xv, double yv) {
+		xMoments.add(xv);
+		yMoments.add(yv);
+		xyMoments.add(xv, yv);
+		if (xOrder != null) {
+			xOrder.add(xv);
+			yOrder.add(yv);
+			xFrequency.increment(xv);
+			yFrequency.increment(yv);
+		} else if (isExact()) {
+			x.insert(xv);
+			y.insert(yv);
+			xFrequency.increment(xv);
+			yFrequency.increment(yv);
+		} else {
+			xSketch.add(xv);
+			ySketch.add(yv);
+			xCounts.add(xv);
+			yCounts.add(yv);
+		}
+	}
+	
+	/**
+	 * Removes a point that was added earlier.
+	 * @param xv is the x component.
+	 * @param yv is the y component.
+	 * @return true if the point was found and removed; always false in
+	 * sketch mode, as sketches cannot forget a value.
+	 */
+	public boolean remove(double xv, double yv) {
+		if (!isExact()) return false;
+		if (xOrder != null) {
+			//The counts say whether the values are present.
+			if (!xFrequency.decrement(xv)) return false;
+			if (!yFrequency.decrement(yv)) {
+				xFrequency.increment(xv);
+				return false;
+			}
+			xOrder.remove(xv);
+			yOrder.remove(yv);
+		} else {
+			if (!x.remove(xv)) return false;
+			if (!y.remove(yv)) {
+				x.insert(xv);
+				return false;
+			}
+			xFrequency.decrement(xv);
+			yFrequency.decrement(yv);
+		}
+		xMoments.remove(xv);
+		yMoments.remove(yv);
+		xyMoments.remove(xv, yv);
+		return true;
+	}
+	
+	/**
+	 * Changes a point that was added earlier. Only the components that
+	 * differ are touched, so changing x does not shift the sorted y values
+	 * or recount them.
+	 * @param oldX is the old x component.
+	 * @param oldY is the old y component.
+	 * @param xv is the new x component.
+	 * @param yv is the new y component.
+	 * @return true if the point was found and changed; always false in
+	 * sketch mode, as sketches cannot forget a value.
+	 */
+	public boolean change(double oldX, double oldY, double xv, double yv) {
+		if (!isExact()) return false;
+		boolean newX = Double.compare(oldX, xv) != 0;
+		boolean newY = Double.compare(oldY, yv) != 0;
+		if (newX && !replace(X, oldX, xv)) return false;
+		if (newY && !replace(Y, oldY, yv)) {
+			if (newX) replace(X, xv, oldX);
+			return false;
+		}
+		if (newX || newY) {
+			xyMoments.remove(oldX, oldY);
+			xyMoments.add(xv, yv);
+		}
+		return true;
+	}
+	
+	/**
+	 * Replaces one value of one component. Not used in sketch mode.
+	 * @param axis is {@link #X} or {@link #Y}.
+	 * @param old is the value to take out.
+	 * @param v is the value to put in.
+	 * @return true if the old value was found.
+	 */
+	private boolean replace(int axis, double old, double v) {
+		FrequencyMap f = frequency(axis);
+		if (xOrder != null) {
+			if (!f.decrement(old)) return false;
+			order(axis).remove(old);
+			order(axis).add(v);
+		} else {
+			SortedColumn c = column(axis);
+			if (!c.remove(old)) return false;
+			c.insert(v);
+			f.decrement(old);
+		}
+		f.increment(v);
+		Moments m = moments(axis);
+		m.remove(old);
+		m.add(v);
+		return true;
+	}
+	
+	/**
+	 * Retrieve the number of points.
+	 * @return the count.
+	 */
+	public int size() {
+		return (int) xMoments.getCount();
+	}
+	
+	/**
+	 * Adds every point summarized by other statistics in sketch mode, as
+	 * when partitions of a feed are summarized apart. The other statistics
+	 * are not changed.
+	 * @param other holds the points to add; it must use the same sketch size.
+	 */
+	public void merge(Statistics other) {
+		if (isExact() || other.isExact()) {
+			throw new IllegalStateException("Only statistics in sketch mode can be merged.");
+		}
+		xMoments.merge(other.xMoments);
+		yMoments.merge(other.yMoments);
+		xyMoments.merge(other.xyMoments);
+		xSketch.merge(other.xSketch);
+		ySketch.merge(other.ySketch);
+		xCounts.merge(other.xCounts);
+		yCounts.merge(other.yCounts);
+	}
+	
+	/**
+	 * Retrieve whether every value is kept, so medians and modes are exact.
+	 * @return false in sketch mode.
+	 */
+	public boolean isExact() {
+		return xSketch == null;
+	}
+	
+	/**
+	 * Retrieve the most a quantile's rank can be off, as a fraction of the
+	 * count.
+	 * @return the rank error, or 0 in exact mode.
+	 */
+	public double getRankError() {
+		return isExact() ? 0 : xSketch.getRankError();
+	}
+	
+	/**
+	 * Retrieve the values between which a quantile lies, found by moving
+	 * the rank error either side of p.
+	 * @param axis is {@link #X} or {@link #Y}.
+	 * @param p is the fraction of values at or below the quantile.
+	 * @return the lower and upper bound; both are the quantile in exact mode.
+	 */
+	public double[] quantileBounds(int axis, double p) {
+		double e = getRankError();
+		return new double[] {quantile(axis, Math.max(0, p - e)),
+				quantile(axis, Math.min(1, p + e))};
+	}
+	
+	/**
+	 * Retrieve the most the count behind a mode can be too high.
+	 * @param axis is {@link #X} or {@link #Y}.
+	 * @return the overcount bound, or 0 in exact mode.
+	 */
+	public double getModeError(int axis) {
+		if (isExact()) return 0;
+		return counts(axis).getError();
 	}
 	
 	/**
@@ -59,7 +448,7 @@ public class Statistics {
 	 * @return the x mean.
 	 */
 	public double getXMean() {
-		return mean[0];
+		return xMoments.getMean();
 	}
 	
 	/**
@@ -67,7 +456,7 @@ public class Statistics {
 	 * @return the y mean.
 	 */
 	public double getYMean() {
-		return mean[1];
+		return yMoments.getMean();
 	}
 	
 	/**
@@ -75,18 +464,7 @@ public class Statistics {
 	 * @return the x median.
 	 */
 	public double getXMedian() {
-		double median = 0;
-
-		if (x.length == 2) {
-			median = (x[0] + x[1]) / 2; 
-		} else if (x.length % 2 == 0) {
-			median = (x[x.length / 2] + x[(x.length / 2) + 1]) / 2;
-			
-		} else {
-			median = x[x.length / 2];
-		}
-		
-		return median;
+		return quantile(X, 0.5);
 	}
 	
 	/**
@@ -94,71 +472,74 @@ public class Statistics {
 	 * @return the y median.
 	 */
 	public double getYMedian() {
-		double median = 0;
-		
-		if (y.length == 2) {
-			median = (y[0] + y[1]) / 2;
-		} else if (y.length % 2 == 0) {
-			median = (y[y.length / 2] + y[(y.length / 2) + 1]) / 2;
-			
-		} else {
-			median = y[y.length / 2];
-		}
-		
-		return median;
+		return quantile(Y, 0.5);
+	}
+	
+	/**
+	 * Retrieve a quantile of one component. Values between ranks are
+	 * interpolated, so a p of 0.5 gives the median. In sketch mode the
+	 * result is a kept value whose rank is within the rank error of p.
+	 * In running mode only 0, 0.5 and 1 are answered; any other p throws
+	 * IllegalStateException.
+	 * @param axis is {@link #X} or {@link #Y}.
+	 * @param p is the fraction of values at or below the result, from 0 to 1.
+	 * @return the quantile, or NaN if there are no points.
+	 */
+	public double quantile(int axis, double p) {
+		if (!isExact()) return sketch(axis).quantile(p);
+		if (xOrder != null) return order(axis).quantile(p);
+		return column(axis).quantile(p);
+	}
+	
+	/**
+	 * Retrieve the lower quartile, median and upper quartile of one component.
+	 * @param axis is {@link #X} or {@link #Y}.
+	 * @return the three quartiles in ascending order.
+	 */
+	public double[] quartiles(int axis) {
+		return new double[] {quantile(axis, 0.25), quantile(axis, 0.5),
+				quantile(axis, 0.75)};
+	}
+	
+	/**
+	 * Retrieve the width of the middle half of one component.
+	 * @param axis is {@link #X} or {@link #Y}.
+	 * @return the interquartile range.
+	 */
+	public double iqr(int axis) {
+		return quantile(axis, 0.75) - quantile(axis, 0.25);
 	}
 	
 	/**
 	 * Retrieve the x component most frequent value.
+	 * If several values tie, the largest is returned.
 	 * @return the x mode.
 	 */
-	public double getXMode() {	    
-		double mode = 0;
-		double xcurrent= x[0];
-		int xcount = 0;
-		int xmax = 0;
-		
-		for (int i = 0; i < x.length; i++) {
-			if (x[i] == xcurrent) xcount++;
-			else {
-				xcurrent = x[i];
-				xcount = 0;
-			}
-			
-			if (xmax <= xcount) {
-				xmax = xcount;
-				mode = xcurrent;
-			}
-		}
-		
-		return mode;
+	public double getXMode() {
+		return isExact() ? xFrequency.mode() : xCounts.mode();
 	}
 	
 	/**
 	 * Retrieve the y component most frequent value.
+	 * If several values tie, the largest is returned.
 	 * @return the y mode.
 	 */
 	public double getYMode() {
-		double mode = 0;
-		double ycurrent = y[0];
-		int ycount = 0;
-		int ymax = 0;
-		
-		for (int i = 0; i < x.length; i++) {
-			
-			if (y[i] == ycurrent) ycount++;
-			else {
-				ycurrent = y[i];
-				ycount = 0;
-			}
-			
-			if (ymax <= ycount) {
-				ymax = ycount;
-				mode = ycurrent;
-			}
+		return isExact() ? yFrequency.mode() : yCounts.mode();
+	}
+	
+	/**
+	 * Retrieve every most frequent value of one component.
+	 * @param axis is {@link #X} or {@link #Y}.
+	 * @return the modes in ascending order; in sketch mode only the
+	 * approximate mode.
+	 */
+	public double[] getModes(int axis) {
+		if (!isExact()) {
+			double m = counts(axis).mode();
+			return Double.isNaN(m) ? new double[0] : new double[] {m};
 		}
-		
-		return mode;
+		return frequency(axis).modes();
 	}
 	
 	/**
@@ -166,7 +547,9 @@ public class Statistics {
 	 * @return the x range.
 	 */
 	public double getXRange() {
-		return x[x.length - 1] - x[0];
+		if (!isExact()) return xSketch.max() - xSketch.min();
+		if (xOrder != null) return xOrder.max() - xOrder.min();
+		return x.max() - x.min();
 	}
 	
 	/**
@@ -174,7 +557,105 @@ public class Statistics {
 	 * @return the y range.
 	 */
 	public double getYRange() {
-		return y[y.length - 1] - y[0];
+		if (!isExact()) return ySketch.max() - ySketch.min();
+		if (yOrder != null) return yOrder.max() - yOrder.min();
+		return y.max() - y.min();
+	}
+	
+	/**
+	 * Finds the column for an axis.
+	 * @param axis is {@link #X} or {@link #Y}.
+	 * @return the column of values.
+	 */
+	private SortedColumn column(int axis) {
+		switch (axis) {
+		case X:
+			return x;
+		case Y:
+			return y;
+		default:
+			throw new IllegalArgumentException("Unknown axis: " + axis);
+		}
+	}
+	
+	/**
+	 * Finds the mean and squared deviations for an axis.
+	 * @param axis is {@link #X} or {@link #Y}.
+	 * @return the moments.
+	 */
+	private Moments moments(int axis) {
+		switch (axis) {
+		case X:
+			return xMoments;
+		case Y:
+			return yMoments;
+		default:
+			throw new IllegalArgumentException("Unknown axis: " + axis);
+		}
+	}
+	
+	/**
+	 * Finds the running median and extremes for an axis.
+	 * @param axis is {@link #X} or {@link #Y}.
+	 * @return the running order.
+	 */
+	private RunningOrder order(int axis) {
+		switch (axis) {
+		case X:
+			return xOrder;
+		case Y:
+			return yOrder;
+		default:
+			throw new IllegalArgumentException("Unknown axis: " + axis);
+		}
+	}
+	
+	/**
+	 * Finds the quantile sketch for an axis.
+	 * @param axis is {@link #X} or {@link #Y}.
+	 * @return the sketch.
+	 */
+	private KllSketch sketch(int axis) {
+		switch (axis) {
+		case X:
+			return xSketch;
+		case Y:
+			return ySketch;
+		default:
+			throw new IllegalArgumentException("Unknown axis: " + axis);
+		}
+	}
+	
+	/**
+	 * Finds the frequency sketch for an axis.
+	 * @param axis is {@link #X} or {@link #Y}.
+	 * @return the sketch.
+	 */
+	private CountMinSketch counts(int axis) {
+		switch (axis) {
+		case X:
+			return xCounts;
+		case Y:
+			return yCounts;
+		default:
+			throw new IllegalArgumentException("Unknown axis: " + axis);
+		}
+	}
+	
+	/**
+	 * Finds the value counts for an axis.
+	 * @param axis is {@link #X} or {@link #Y}.
+	 * @return the value counts.
+	 */
+	private FrequencyMap frequency(int axis) {
+		switch (axis) {
+		case X:
+			return xFrequency;
+		case Y:
+			return yFrequency;
+		default:
+			throw new IllegalArgumentException("Unknown axis: " + axis);
+		}
 	}
 	
 	/**
@@ -182,14 +663,7 @@ public class Statistics {
 	 * @return the x standard deviation.
 	 */
 	public double getXs() {
-		double sum = 0;
-		
-		for (int i = 0; i < x.length; i++) {
-			sum += Math.pow(x[i] - mean[0], 2);
-		}
-		
-		sum = sum / (x.length - 1);
-		return Math.sqrt(sum);
+		return xMoments.getStandardDeviation();
 	}
 	
 	/**
@@ -197,13 +671,46 @@ public class Statistics {
 	 * @return the y standard deviation.
 	 */
 	public double getYs() {
-		double sum = 0;
-		
-		for (int i = 0; i < y.length; i++) {
-			sum += Math.pow(y[i] - mean[1], 2);
-		}
-		
-		sum = sum / (y.length - 1);
-		return Math.sqrt(sum);
+		return yMoments.getStandardDeviation();
+	}
+	
+	/**
+	 * Retrieve how x and y vary together.
+	 * @return the sample covariance.
+	 */
+	public double getCovariance() {
+		return xyMoments.getCovariance();
+	}
+	
+	/**
+	 * Retrieve the Pearson correlation of x and y.
+	 * @return r from -1 to 1.
+	 */
+	public double getCorrelation() {
+		return xyMoments.getCorrelation();
+	}
+	
+	/**
+	 * Retrieve the slope of the least-squares line of y on x.
+	 * @return the slope.
+	 */
+	public double getSlope() {
+		return xyMoments.getSlope();
+	}
+	
+	/**
+	 * Retrieve where the least-squares line of y on x meets the y axis.
+	 * @return the intercept.
+	 */
+	public double getIntercept() {
+		return xyMoments.getIntercept();
+	}
+	
+	/**
+	 * Retrieve the share of the y variance explained by the line.
+	 * @return R squared.
+	 */
+	public double getRSquared() {
+		return xyMoments.getRSquared();
 	}
 }
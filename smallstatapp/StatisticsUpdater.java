@@ -0,0 +1,558 @@
+package smallstatapp;
+
+import java.text.NumberFormat;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.swing.JOptionPane;
+
+import javafx.animation.AnimationTimer;
+import javafx.concurrent.Task;
+import metrics.Metrics;
+import metrics.Timer;
+
+/**
+ * Keeps statistics up to date on a worker thread so edits never wait for
+ * them on the JavaFX Application Thread. Edits are queued as they happen and
+ * at most one update is started per frame, which applies every edit queued
+ * so far. The worker owns its own Statistics, so it never reads the table's
+ * data while the user is changing it. A reset hands over a snapshot, and
+ * the values saved with a loaded file stand until the first edit.
+ * The formatted values and the fitted line are given back on the JavaFX
+ * Application Thread. Each value is formatted only when an edit has made
+ * it out of date and it is on screen; the rest are remembered.
+ * @author Melinda Robertson
+ * @version 17 October 2026
+ */
+public class StatisticsUpdater {
+
+	/**
+	 * Mode that keeps every value, for exact statistics.
+	 */
+	public static final int EXACT = 0;
+
+	/**
+	 * Mode that keeps bounded-size sketches. Points cannot be removed.
+	 */
+	public static final int SKETCH = 1;
+
+	/**
+	 * Mode that keeps the median and range in heaps, for sliding windows.
+	 */
+	public static final int RUNNING = 2;
+
+	/**
+	 * The sketch size used in sketch mode.
+	 */
+	private static final int SKETCH_SIZE = KllSketch.DEFAULT_K;
+
+	/**
+	 * Edit type for an added point.
+	 */
+	private static final int ADD = 1;
+
+	/**
+	 * Edit type for a removed point.
+	 */
+	private static final int REMOVE = 2;
+
+	/**
+	 * Edit type for replacing every point.
+	 */
+	private static final int RESET = 3;
+
+	/**
+	 * Edit type for a point whose components changed.
+	 */
+	private static final int CHANGE = 4;
+
+	/**
+	 * Receives the results of an update on the JavaFX Application Thread.
+	 */
+	public interface Display {
+
+		/**
+		 * Shows new statistics.
+		 * @param text holds the formatted values in calcBox order, with
+		 * null for each value that has not changed.
+		 * @param slope is the slope of the least-squares line, or NaN.
+		 * @param intercept is the intercept of the least-squares line, or NaN.
+		 */
+		void show(String[] text, double slope, double intercept);
+	}
+
+	/**
+	 * The results of one update.
+	 */
+	private static class Result {
+
+		/**
+		 * The formatted values.
+		 */
+		final String[] text;
+
+		/**
+		 * The slope of the least-squares line.
+		 */
+		final double slope;
+
+		/**
+		 * The intercept of the least-squares line.
+		 */
+		final double intercept;
+
+		/**
+		 * The reset the values were worked out after.
+		 */
+		final int generation;
+
+		/**
+		 * Captures the results of an update.
+		 * @param text holds the formatted values.
+		 * @param slope is the slope of the line.
+		 * @param intercept is the intercept of the line.
+		 * @param generation is the reset they follow.
+		 */
+		Result(String[] text, double slope, double intercept, int generation) {
+			this.text = text;
+			this.slope = slope;
+			this.intercept = intercept;
+			this.generation = generation;
+		}
+	}
+
+	/**
+	 * One queued change to the data.
+	 */
+	private static class Edit {
+
+		/**
+		 * The kind of edit.
+		 */
+		final int type;
+
+		/**
+		 * The x component of an added or removed point.
+		 */
+		final double x;
+
+		/**
+		 * The y component of an added or removed point.
+		 */
+		final double y;
+
+		/**
+		 * The old x component of a changed point.
+		 */
+		final double oldX;
+
+		/**
+		 * The old y component of a changed point.
+		 */
+		final double oldY;
+
+		/**
+		 * The new points of a reset.
+		 */
+		final PointStore points;
+
+		/**
+		 * The mode after a reset.
+		 */
+		final int mode;
+
+		/**
+		 * The text already shown for the points of a reset, or null.
+		 */
+		final String[] known;
+
+		/**
+		 * The number of a reset.
+		 */
+		final int generation;
+
+		/**
+		 * Creates an edit.
+		 * @param type is the kind of edit.
+		 * @param x is the x component.
+		 * @param y is the y component.
+		 * @param points is the new points of a reset, or null.
+		 * @param mode is the mode after a reset.
+		 */
+		Edit(int type, double x, double y, PointStore points, int mode) {
+			this(type, x, y, x, y, points, mode, null, 0);
+		}
+
+		/**
+		 * Creates an edit that changes a point.
+		 * @param type is the kind of edit.
+		 * @param oldX is the old x component.
+		 * @param oldY is the old y component.
+		 * @param x is the x component.
+		 * @param y is the y component.
+		 * @param points is the new points of a reset, or null.
+		 * @param mode is the mode after a reset.
+		 * @param known is the text already shown for a reset, or null.
+		 * @param generation is the number of a reset.
+		 */
+		Edit(int type, double oldX, double oldY, double x, double y,
+				PointStore points, int mode, String[] known, int generation) {
+			this.type = type;
+			this.oldX = oldX;
+			this.oldY = oldY;
+			this.x = x;
+			this.y = y;
+			this.points = points;
+			this.mode = mode;
+			this.known = known;
+			this.generation = generation;
+		}
+	}
+
+	/**
+	 * Times one run of the worker, from the first queued edit to the values.
+	 */
+	private static final Timer UPDATE_TIMER = Metrics.timer("statistics.update");
+
+	/**
+	 * Times building statistics from every point after a reset.
+	 */
+	private static final Timer BUILD_TIMER = Metrics.timer("statistics.build");
+
+	/**
+	 * Edits waiting for the worker.
+	 */
+	private final Queue<Edit> edits = new ConcurrentLinkedQueue<Edit>();
+
+	/**
+	 * Runs the updates, one at a time.
+	 */
+	private final ExecutorService worker;
+
+	/**
+	 * Starts an update on each frame that has new edits.
+	 */
+	private final AnimationTimer pulse;
+
+	/**
+	 * Receives the results.
+	 */
+	private final Display display;
+
+	/**
+	 * The statistics. Only used on the worker.
+	 */
+	private Statistics stats = new Statistics();
+
+	/**
+	 * Formats known values. Only used on the JavaFX thread.
+	 */
+	private final NumberFormat knownFormat;
+
+	/**
+	 * Remembers the formatted values. Only used on the worker.
+	 */
+	private final MetricBindings metrics;
+
+	/**
+	 * The calcBox slots on screen. Set on the JavaFX thread and
+	 * read on the worker.
+	 */
+	private volatile int wanted = MetricBindings.ALL;
+
+	/**
+	 * The update in progress, or null. Only used on the JavaFX thread.
+	 */
+	private Task<Result> running;
+
+	/**
+	 * The kind of statistics the worker keeps. Only used on the JavaFX thread.
+	 */
+	private int mode = EXACT;
+
+	/**
+	 * True if the last update was cancelled after it may have applied edits,
+	 * so the values need publishing again. Only used on the JavaFX thread.
+	 */
+	private boolean stale;
+
+	/**
+	 * The table's store while its statistics are only known from a saved
+	 * summary, or null. The statistics are built from it when the first
+	 * edit arrives. Only used on the JavaFX thread.
+	 */
+	private PointStore unbuilt;
+
+	/**
+	 * Counts the resets. Results worked out before the latest reset are
+	 * dropped. Only used on the JavaFX thread.
+	 */
+	private int generation;
+
+	/**
+	 * The number of the last reset the worker applied. Only used on the
+	 * worker.
+	 */
+	private int appliedGeneration;
+
+	/**
+	 * Creates an updater with no points and starts watching for edits.
+	 * @param format formats the values; from now on only the worker uses it.
+	 * @param display receives the values and the fitted line.
+	 */
+	public StatisticsUpdater(NumberFormat format, Display display) {
+		this.knownFormat = (NumberFormat) format.clone();
+		this.metrics = new MetricBindings(stats, format);
+		this.display = display;
+		worker = Executors.newSingleThreadExecutor(r -> {
+			Thread t = new Thread(r, "statistics");
+			t.setDaemon(true);
+			return t;
+		});
+		pulse = new AnimationTimer() {
+			@Override
+			public void handle(long now) {
+				if (running == null && (stale || !edits.isEmpty())) {
+					stale = false;
+					startUpdate();
+				}
+			}
+		};
+		pulse.start();
+	}
+
+	/**
+	 * Queues an added point.
+	 * @param x is the x component.
+	 * @param y is the y component.
+	 */
+	public void add(double x, double y) {
+		if (build()) return;
+		edits.add(new Edit(ADD, x, y, null, EXACT));
+	}
+
+	/**
+	 * Queues a removed point. Sketches cannot forget a value, so when
+	 * {@link #canRemove()} is false callers should {@link #reset(PointStore)}
+	 * instead.
+	 * @param x is the x component.
+	 * @param y is the y component.
+	 */
+	public void remove(double x, double y) {
+		if (build()) return;
+		edits.add(new Edit(REMOVE, x, y, null, EXACT));
+	}
+
+	/**
+	 * Queues a point whose components changed. Only the statistics of the
+	 * components that differ are redone. When {@link #canRemove()} is false
+	 * callers should {@link #reset(PointStore)} instead.
+	 * @param oldX is the old x component.
+	 * @param oldY is the old y component.
+	 * @param x is the new x component.
+	 * @param y is the new y component.
+	 */
+	public void change(double oldX, double oldY, double x, double y) {
+		if (build()) return;
+		edits.add(new Edit(CHANGE, oldX, oldY, x, y, null, EXACT, null, 0));
+	}
+
+	/**
+	 * Replaces every point. Edits still queued are dropped, an update still
+	 * running is cancelled and the values of one that already finished are
+	 * not shown, since the reset makes all of them out of date.
+	 * @param store holds the new points; a snapshot is taken.
+	 */
+	public void reset(PointStore store) {
+		unbuilt = null;
+		edits.clear();
+		edits.add(new Edit(RESET, 0, 0, 0, 0, store.snapshot(), mode, null, ++generation));
+		if (running != null) running.cancel();
+	}
+
+	/**
+	 * Replaces every point with points whose statistics are already known,
+	 * such as a loaded snapshot. The known values are shown at once and
+	 * trusted until the first edit, which copies the store and builds the
+	 * statistics from it; until then nothing is copied or worked out.
+	 * Sketch mode gives different values, so there the sketches are built
+	 * now and replace the known values.
+	 * @param store is the table's store, already holding the new points.
+	 * @param known holds the exact values in {@link MetricBindings} slot order.
+	 */
+	public void reset(PointStore store, double[] known) {
+		String[] text = new String[MetricBindings.COUNT];
+		for (int i = 0; i < text.length; i++) {
+			text[i] = knownFormat.format(known[i]);
+		}
+		display.show(text.clone(), known[MetricBindings.SLOPE],
+				known[MetricBindings.INTERCEPT]);
+		if (mode == SKETCH) {
+			reset(store);
+			return;
+		}
+		//The worker drops its statistics and keeps the text, so nothing it
+		//still has out of date is shown over the known values.
+		edits.clear();
+		edits.add(new Edit(RESET, 0, 0, 0, 0, null, mode, text, ++generation));
+		if (running != null) running.cancel();
+		unbuilt = store;
+	}
+
+	/**
+	 * Changes the kind of statistics kept, rebuilding them from a store.
+	 * @param mode is {@link #EXACT}, {@link #SKETCH} or {@link #RUNNING}.
+	 * @param store holds the points; a snapshot is taken.
+	 */
+	public void setMode(int mode, PointStore store) {
+		if (mode != EXACT && mode != SKETCH && mode != RUNNING) {
+			throw new IllegalArgumentException("Unknown mode: " + mode);
+		}
+		this.mode = mode;
+		reset(store);
+	}
+
+	/**
+	 * Retrieve the kind of statistics kept.
+	 * @return {@link #EXACT}, {@link #SKETCH} or {@link #RUNNING}.
+	 */
+	public int getMode() {
+		return mode;
+	}
+
+	/**
+	 * Sets which values are shown. Values that are not shown are not
+	 * formatted; once shown again they are brought up to date.
+	 * @param slots is the mask of {@link MetricBindings} slots shown.
+	 */
+	public void setWanted(int slots) {
+		if ((slots & ~wanted) != 0) stale = true;
+		wanted = slots;
+	}
+
+	/**
+	 * Retrieve whether removed points can be taken out of the statistics.
+	 * @return false in sketch mode.
+	 */
+	public boolean canRemove() {
+		return mode != SKETCH;
+	}
+
+	/**
+	 * Stops the worker.
+	 */
+	public void shutdown() {
+		pulse.stop();
+		worker.shutdownNow();
+	}
+
+	/**
+	 * Builds the statistics from the table's store if they are still only
+	 * known from a saved summary. The store already holds the edit that
+	 * called this, so the edit itself is not queued.
+	 * @return true if the statistics were rebuilt.
+	 */
+	private boolean build() {
+		if (unbuilt == null) return false;
+		reset(unbuilt);
+		return true;
+	}
+
+	/**
+	 * Starts an update that applies the queued edits on the worker.
+	 */
+	private void startUpdate() {
+		final Task<Result> task = new Task<Result>() {
+			@Override
+			protected Result call() {
+				Timer.Sample sample = UPDATE_TIMER.start();
+				try {
+					//Checked before taking an edit, so a cancelled task never drops one.
+					Edit e;
+					while (!isCancelled() && (e = edits.poll()) != null) {
+						apply(e);
+					}
+					//Edits queued since are shown too, by the pass the next frame
+					//starts for them, so a steady stream still updates every frame.
+					//Only a reset cancels, and a reset marks every value out of date.
+					if (isCancelled()) return null;
+					String[] text = metrics.refresh(wanted);
+					if (text == null) return null;
+					return new Result(text, stats.getSlope(), stats.getIntercept(),
+							appliedGeneration);
+				} finally {
+					sample.stop();
+				}
+			}
+		};
+		task.setOnSucceeded(e -> {
+			running = null;
+			Result r = task.getValue();
+			//A task that finished just before a reset must not cover the values
+			//the reset showed; the reset is still queued and publishes its own.
+			if (r != null && r.generation == generation) {
+				display.show(r.text, r.slope, r.intercept);
+			}
+		});
+		task.setOnCancelled(e -> {
+			running = null;
+			stale = true;
+		});
+		task.setOnFailed(e -> {
+			running = null;
+			JOptionPane.showMessageDialog(null, "Could not update the statistics: "
+					+ task.getException().getMessage());
+		});
+		running = task;
+		worker.execute(task);
+	}
+
+	/**
+	 * Applies one edit to the statistics and marks the values it changes
+	 * out of date. Called on the worker.
+	 * @param e is the edit.
+	 */
+	private void apply(Edit e) {
+		switch (e.type) {
+		case ADD:
+			stats.add(e.x, e.y);
+			metrics.invalidate(MetricBindings.ALL);
+			break;
+		case REMOVE:
+			stats.remove(e.x, e.y);
+			metrics.invalidate(MetricBindings.ALL);
+			break;
+		case CHANGE:
+			if (!stats.change(e.oldX, e.oldY, e.x, e.y)) break;
+			if (Double.compare(e.oldX, e.x) != 0) {
+				metrics.invalidate(MetricBindings.affectedBy(Statistics.X));
+			}
+			if (Double.compare(e.oldY, e.y) != 0) {
+				metrics.invalidate(MetricBindings.affectedBy(Statistics.Y));
+			}
+			break;
+		case RESET:
+			appliedGeneration = e.generation;
+			Timer.Sample sample = BUILD_TIMER.start();
+			if (e.points == null) {
+				//Known from a saved summary; built at the first edit.
+				stats = new Statistics();
+			} else if (e.mode == SKETCH) {
+				stats = new Statistics(e.points, SKETCH_SIZE);
+			} else if (e.mode == RUNNING) {
+				stats = Statistics.running(e.points);
+			} else {
+				stats = new Statistics(e.points);
+			}
+			sample.stop();
+			if (e.known != null) {
+				metrics.setStatistics(stats, e.known);
+			} else {
+				metrics.setStatistics(stats);
+			}
+			break;
+		}
+	}
+}
@@ -0,0 +1,476 @@
+package smallstatapp;
+
+import java.nio.DoubleBuffer;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.stream.DoubleStream;
+
+/**
+ * An immutable summary of one column of values, for batch jobs that want a
+ * few numbers and nothing else. Only the metrics asked for are computed:
+ * a mean alone is one pass with no copy, while a median copies the values
+ * once for selection. Values can come from an array, a buffer, a stream or
+ * an iterator, none of them boxed, and nothing here needs JavaFX.
+ * <pre>
+ * Summary s = Summary.of(values, Summary.MEAN | Summary.MEDIAN);
+ * </pre>
+ * @author Melinda Robertson
+ * @version 17 October 2026
+ */
+public final class Summary {
+
+	/**
+	 * Metric flag for the number of values. Always computed.
+	 */
+	public static final int COUNT = 1;
+
+	/**
+	 * Metric flag for the mean.
+	 */
+	public static final int MEAN = 1 << 1;
+
+	/**
+	 * Metric flag for the sample variance and standard deviation.
+	 */
+	public static final int VARIANCE = 1 << 2;
+
+	/**
+	 * Metric flag for the smallest value.
+	 */
+	public static final int MIN = 1 << 3;
+
+	/**
+	 * Metric flag for the largest value.
+	 */
+	public static final int MAX = 1 << 4;
+
+	/**
+	 * Metric flag for the median.
+	 */
+	public static final int MEDIAN = 1 << 5;
+
+	/**
+	 * Metric flag for the lower and upper quartiles.
+	 */
+	public static final int QUARTILES = 1 << 6;
+
+	/**
+	 * Metric flag for the most frequent value.
+	 */
+	public static final int MODE = 1 << 7;
+
+	/**
+	 * Every metric.
+	 */
+	public static final int ALL = (1 << 8) - 1;
+
+	/**
+	 * The metrics that need the values kept for selection.
+	 */
+	private static final int ORDER = MEDIAN | QUARTILES;
+
+	/**
+	 * The metrics computed.
+	 */
+	private final int metrics;
+
+	/**
+	 * The number of values.
+	 */
+	private final long count;
+
+	/**
+	 * The mean.
+	 */
+	private final double mean;
+
+	/**
+	 * The sample variance.
+	 */
+	private final double variance;
+
+	/**
+	 * The smallest value.
+	 */
+	private final double min;
+
+	/**
+	 * The largest value.
+	 */
+	private final double max;
+
+	/**
+	 * The median.
+	 */
+	private final double median;
+
+	/**
+	 * The lower quartile.
+	 */
+	private final double lowerQuartile;
+
+	/**
+	 * The upper quartile.
+	 */
+	private final double upperQuartile;
+
+	/**
+	 * The most frequent value.
+	 */
+	private final double mode;
+
+	/**
+	 * Collects values one at a time for the metrics that need them.
+	 */
+	private static class Accumulator {
+
+		/**
+		 * The metrics to collect for.
+		 */
+		final int metrics;
+
+		/**
+		 * The number of values.
+		 */
+		long count;
+
+		/**
+		 * The mean and squared deviations, or null.
+		 */
+		final Moments moments;
+
+		/**
+		 * The smallest value so far.
+		 */
+		double min = Double.NaN;
+
+		/**
+		 * The largest value so far.
+		 */
+		double max = Double.NaN;
+
+		/**
+		 * How often each value occurs, or null.
+		 */
+		final FrequencyMap counts;
+
+		/**
+		 * The values, kept for selection, or null.
+		 */
+		double[] values;
+
+		/**
+		 * Prepares to collect.
+		 * @param metrics is the metrics to collect for.
+		 */
+		Accumulator(int metrics) {
+			this.metrics = metrics;
+			moments = (metrics & (MEAN | VARIANCE)) != 0 ? new Moments() : null;
+			counts = (metrics & MODE) != 0 ? new FrequencyMap() : null;
+			values = (metrics & ORDER) != 0 ? new double[16] : null;
+		}
+
+		/**
+		 * Collects one value.
+		 * @param v is the value.
+		 */
+		void accept(double v) {
+			if (count == 0 || v < min) min = v;
+			if (count == 0 || v > max) max = v;
+			if (moments != null) moments.add(v);
+			if (counts != null) counts.increment(v);
+			if (values != null) {
+				if (count == values.length) {
+					values = Arrays.copyOf(values, values.length * 2);
+				}
+				values[(int) count] = v;
+			}
+			count++;
+		}
+	}
+
+	/**
+	 * Creates a summary from collected parts.
+	 * @param metrics is the metrics computed.
+	 * @param count is the number of values.
+	 * @param moments holds the mean and squared deviations, or null.
+	 * @param min is the smallest value.
+	 * @param max is the largest value.
+	 * @param order holds the values for selection, or null.
+	 * @param counts holds how often each value occurs, or null.
+	 */
+	private Summary(int metrics, long count, Moments moments, double min, double max,
+			SortedColumn order, FrequencyMap counts) {
+		this.metrics = metrics | COUNT;
+		this.count = count;
+		mean = moments == null ? Double.NaN : moments.getMean();
+		variance = moments == null ? Double.NaN : moments.getVariance();
+		this.min = count == 0 ? Double.NaN : min;
+		this.max = count == 0 ? Double.NaN : max;
+		median = (metrics & MEDIAN) != 0 ? order.quantile(0.5) : Double.NaN;
+		boolean quartiles = (metrics & QUARTILES) != 0;
+		lowerQuartile = quartiles ? order.quantile(0.25) : Double.NaN;
+		upperQuartile = quartiles ? order.quantile(0.75) : Double.NaN;
+		mode = counts == null ? Double.NaN : counts.mode();
+	}
+
+	/**
+	 * Summarizes an array.
+	 * @param values holds the values; it is not changed.
+	 * @param metrics is the metric flags to compute, or'd together.
+	 * @return the summary.
+	 */
+	public static Summary of(double[] values, int metrics) {
+		return of(values, 0, values.length, metrics);
+	}
+
+	/**
+	 * Summarizes part of an array.
+	 * @param values holds the values; it is not changed.
+	 * @param from is the first index, inclusive.
+	 * @param to is the last index, exclusive.
+	 * @param metrics is the metric flags to compute, or'd together.
+	 * @return the summary.
+	 */
+	public static Summary of(double[] values, int from, int to, int metrics) {
+		check(metrics);
+		if (from < 0 || to > values.length || from > to) {
+			throw new IndexOutOfBoundsException("Range " + from + " to " + to
+					+ " of " + values.length + " values.");
+		}
+		Moments moments = null;
+		if ((metrics & (MEAN | VARIANCE)) != 0) moments = Moments.of(values, from, to);
+
+		SortedColumn order = null;
+		double min = Double.NaN;
+		double max = Double.NaN;
+		if ((metrics & ORDER) != 0) {
+			//Loading finds the bounds while it copies.
+			order = new SortedColumn();
+			order.load(values, from, to);
+			min = order.min();
+			max = order.max();
+		} else if ((metrics & (MIN | MAX)) != 0 && to > from) {
+			min = max = values[from];
+			for (int i = from + 1; i < to; i++) {
+				if (values[i] < min) min = values[i];
+				if (values[i] > max) max = values[i];
+			}
+		}
+
+		FrequencyMap counts = null;
+		if ((metrics & MODE) != 0) {
+			counts = new FrequencyMap();
+			for (int i = from; i < to; i++) counts.increment(values[i]);
+		}
+		return new Summary(metrics, to - from, moments, min, max, order, counts);
+	}
+
+	/**
+	 * Summarizes the values between a buffer's position and limit. An
+	 * array-backed buffer is read in place; the position does not move.
+	 * @param values holds the values.
+	 * @param metrics is the metric flags to compute, or'd together.
+	 * @return the summary.
+	 */
+	public static Summary of(DoubleBuffer values, int metrics) {
+		if (values.hasArray()) {
+			int from = values.arrayOffset() + values.position();
+			return of(values.array(), from, from + values.remaining(), metrics);
+		}
+		final DoubleBuffer buf = values;
+		return of(new PrimitiveIterator.OfDouble() {
+			int i = buf.position();
+
+			@Override
+			public boolean hasNext() {
+				return i < buf.limit();
+			}
+
+			@Override
+			public double nextDouble() {
+				if (i >= buf.limit()) throw new NoSuchElementException();
+				return buf.get(i++);
+			}
+		}, metrics);
+	}
+
+	/**
+	 * Summarizes a stream, which is consumed.
+	 * @param values is the stream.
+	 * @param metrics is the metric flags to compute, or'd together.
+	 * @return the summary.
+	 */
+	public static Summary of(DoubleStream values, int metrics) {
+		return of(values.iterator(), metrics);
+	}
+
+	/**
+	 * Summarizes the values left in an iterator, which is used up. Values
+	 * are only kept if a median or quartile is asked for.
+	 * @param values is the iterator.
+	 * @param metrics is the metric flags to compute, or'd together.
+	 * @return the summary.
+	 */
+	public static Summary of(PrimitiveIterator.OfDouble values, int metrics) {
+		check(metrics);
+		Accumulator acc = new Accumulator(metrics);
+		while (values.hasNext()) {
+			acc.accept(values.nextDouble());
+		}
+		SortedColumn order = null;
+		if (acc.values != null) {
+			order = new SortedColumn();
+			order.load(acc.values, 0, (int) acc.count);
+		}
+		return new Summary(metrics, acc.count, acc.moments, acc.min, acc.max, order,
+				acc.counts);
+	}
+
+	/**
+	 * Retrieve whether a metric was computed.
+	 * @param metric is a metric flag.
+	 * @return true if it was asked for.
+	 */
+	public boolean has(int metric) {
+		return (metrics & metric) == metric;
+	}
+
+	/**
+	 * Retrieve the metrics computed.
+	 * @return the metric flags, or'd together.
+	 */
+	public int getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Retrieve the number of values.
+	 * @return the count.
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * Retrieve the average value.
+	 * @return the mean, or NaN if there are no values.
+	 */
+	public double getMean() {
+		require(MEAN);
+		return mean;
+	}
+
+	/**
+	 * Retrieve the sample variance.
+	 * @return the variance, or NaN if there are fewer than two values.
+	 */
+	public double getVariance() {
+		require(VARIANCE);
+		return variance;
+	}
+
+	/**
+	 * Retrieve the sample standard deviation.
+	 * @return the standard deviation, or NaN if there are fewer than two values.
+	 */
+	public double getStandardDeviation() {
+		require(VARIANCE);
+		return Math.sqrt(variance);
+	}
+
+	/**
+	 * Retrieve the smallest value.
+	 * @return the minimum, or NaN if there are no values.
+	 */
+	public double getMin() {
+		require(MIN);
+		return min;
+	}
+
+	/**
+	 * Retrieve the largest value.
+	 * @return the maximum, or NaN if there are no values.
+	 */
+	public double getMax() {
+		require(MAX);
+		return max;
+	}
+
+	/**
+	 * Retrieve the middle value.
+	 * @return the median, or NaN if there are no values.
+	 */
+	public double getMedian() {
+		require(MEDIAN);
+		return median;
+	}
+
+	/**
+	 * Retrieve the value a quarter of the way up.
+	 * @return the lower quartile, or NaN if there are no values.
+	 */
+	public double getLowerQuartile() {
+		require(QUARTILES);
+		return lowerQuartile;
+	}
+
+	/**
+	 * Retrieve the value three quarters of the way up.
+	 * @return the upper quartile, or NaN if there are no values.
+	 */
+	public double getUpperQuartile() {
+		require(QUARTILES);
+		return upperQuartile;
+	}
+
+	/**
+	 * Retrieve the most frequent value. If several tie, the largest is
+	 * returned.
+	 * @return the mode, or NaN if there are no values.
+	 */
+	public double getMode() {
+		require(MODE);
+		return mode;
+	}
+
+	/**
+	 * Lists the computed metrics and their values.
+	 * @return the summary as text.
+	 */
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("Summary[count=").append(count);
+		if (has(MEAN)) sb.append(", mean=").append(mean);
+		if (has(VARIANCE)) sb.append(", variance=").append(variance);
+		if (has(MIN)) sb.append(", min=").append(min);
+		if (has(MAX)) sb.append(", max=").append(max);
+		if (has(MEDIAN)) sb.append(", median=").append(median);
+		if (has(QUARTILES)) {
+			sb.append(", quartiles=").append(lowerQuartile).append('/').append(upperQuartile);
+		}
+		if (has(MODE)) sb.append(", mode=").append(mode);
+		return sb.append(']').toString();
+	}
+
+	/**
+	 * Checks that metric flags name at least one known metric.
+	 * @param metrics is the flags.
+	 */
+	private static void check(int metrics) {
+		if (metrics == 0 || (metrics & ~ALL) != 0) {
+			throw new IllegalArgumentException("Unknown metrics: " + metrics);
+		}
+	}
+
+	/**
+	 * Checks that a metric was computed.
+	 * @param metric is the metric flag.
+	 */
+	private void require(int metric) {
+		if (!has(metric)) {
+			throw new IllegalStateException("Metric " + metric + " was not asked for.");
+		}
+	}
+}
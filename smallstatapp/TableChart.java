@@ -1,12 +1,18 @@
+package smallstatapp;
+
+import java.io.File;
+import java.io.IOException;
 import java.text.DecimalFormat;
 import java.text.NumberFormat;
-import java.util.InputMismatchException;
 
 import javax.swing.JOptionPane;
 
+import javafx.animation.AnimationTimer;
 import javafx.application.Application;
+import javafx.beans.property.ReadOnlyObjectWrapper;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.event.ActionEvent;
 import javafx.event.EventHandler;
 import javafx.geometry.Insets;
@@ -14,24 +20,29 @@ import javafx.geometry.Side;
 import javafx.scene.Group;
 import javafx.scene.Scene;
 import javafx.scene.chart.NumberAxis;
-import javafx.scene.chart.ScatterChart;
-import javafx.scene.chart.XYChart;
-import javafx.scene.chart.XYChart.Data;
 import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableColumn.CellEditEvent;
 import javafx.scene.control.TableView;
 import javafx.scene.control.TextField;
-import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.scene.input.Clipboard;
 import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyCodeCombination;
+import javafx.scene.input.KeyCombination;
 import javafx.scene.input.KeyEvent;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.ColumnConstraints;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
 import javafx.scene.text.Text;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
+import metrics.Metrics;
+import metrics.MetricsOverlay;
+import metrics.Timer;
 
 /**
  * Creates a scatter chart from the data in a table. Allows the user to add
@@ -42,10 +53,46 @@ import javafx.stage.Stage;
 public class TableChart extends Application {
 	
 	/**
-	 * For displaying the double values.
+	 * For displaying the double values. Used by the statistics worker.
 	 */
 	private final NumberFormat DF = new DecimalFormat("#0.00");
 	
+	/**
+	 * The height of every table row.
+	 */
+	private static final double ROW_HEIGHT = 24;
+	
+	/**
+	 * The keys that paste rows into the table.
+	 */
+	private static final KeyCombination PASTE =
+			new KeyCodeCombination(KeyCode.V, KeyCombination.SHORTCUT_DOWN);
+	
+	/**
+	 * Times adding one point.
+	 */
+	private static final Timer ADD_TIMER = Metrics.timer("tablechart.addPoint");
+	
+	/**
+	 * Times removing one point.
+	 */
+	private static final Timer REMOVE_TIMER = Metrics.timer("tablechart.removePoint");
+	
+	/**
+	 * Times an edited cell.
+	 */
+	private static final Timer CHANGE_TIMER = Metrics.timer("tablechart.changePoint");
+	
+	/**
+	 * Times adding imported, pasted or loaded points.
+	 */
+	private static final Timer ADD_ALL_TIMER = Metrics.timer("tablechart.addPoints");
+	
+	/**
+	 * Times showing new values in the calcBox.
+	 */
+	private static final Timer CALC_TIMER = Metrics.timer("tablechart.updateCalcBox");
+	
 	/**
 	 * Holds all components.
 	 */
@@ -62,15 +109,31 @@ public class TableChart extends Application {
 	/**
 	 * Displays the x-y pairs from the table.
 	 */
-	private ScatterChart<Number, Number> chart;
+	private DensityScatterChart chart;
 	/**
 	 * The table for the x-y pairs.
 	 */
-	private TableView<XYChart.Data<Number, Number>> table;
+	private TableView<Integer> table;
 	/**
-	 * The data for the chart.
+	 * The points shown by the table and chart.
 	 */
-	private ObservableList<XYChart.Data<Number, Number>> data;
+	private PointStore store;
+	/**
+	 * Updates the statistics off the JavaFX thread as points change.
+	 */
+	private StatisticsUpdater stats;
+	/**
+	 * Keeps the points in arrival order when only the latest are shown.
+	 */
+	private final PointWindow window = new PointWindow();
+	/**
+	 * Drops points from the window as they get too old.
+	 */
+	private AnimationTimer expiry;
+	/**
+	 * Turns sketch mode off and on.
+	 */
+	private CheckBox exactBox;
 	
 	/**
 	 * The text objects that display the statistics.
@@ -103,6 +166,27 @@ public class TableChart extends Application {
 		stage.setScene(scene);
 		root.getChildren().addAll(mainHolder);
 		stage.show();
+		MetricsOverlay.install(stage, "TableChart");
+		//No values are worked out while the window is minimized or hidden.
+		stage.showingProperty().addListener(o -> updateWanted(stage));
+		stage.iconifiedProperty().addListener(o -> updateWanted(stage));
+		
+		expiry = new AnimationTimer() {
+			@Override
+			public void handle(long now) {
+				if (window.isLimited()) window.expire(now, TableChart.this::evict);
+			}
+		};
+		expiry.start();
+	}
+	
+	/**
+	 * Stops the statistics worker when the application closes.
+	 */
+	@Override
+	public void stop() {
+		if (expiry != null) expiry.stop();
+		stats.shutdown();
 	}
 	
 	/**
@@ -117,12 +201,10 @@ public class TableChart extends Application {
 		yAxis.setSide(Side.LEFT);
 		yAxis.setLabel("Y");
 		
-		final XYChart.Series<Number, Number> series = new XYChart.Series<Number, Number>();
-		series.setData(data);
-		
-		chart = new ScatterChart<Number, Number>(xAxis, yAxis);
-		chart.getData().add(series);
+		chart = new DensityScatterChart(xAxis, yAxis, store);
 		chart.setLegendVisible(false);
+		//A copy, since the statistics worker formats with DF.
+		chart.setValueFormat((NumberFormat) DF.clone());
 	}
 	
 	/**
@@ -136,46 +218,54 @@ public class TableChart extends Application {
 		Label label = new Label("X|Y Table");
 		
 		//--------------CREATE THE TABLE----------------------
-		table = new TableView<XYChart.Data<Number, Number>>();
-		data = FXCollections.observableArrayList();
+		table = new TableView<Integer>();
+		store = new PointStore();
+		stats = new StatisticsUpdater(DF, this::updateCalcBox);
 		
-		TableColumn<XYChart.Data<Number, Number>, Double> xCol =
-				new TableColumn<XYChart.Data<Number, Number>, Double>("X");
-		xCol.setCellValueFactory(
-				new PropertyValueFactory<XYChart.Data<Number, Number>, Double>("XValue"));
+		TableColumn<Integer, Double> xCol = new TableColumn<Integer, Double>("X");
+		xCol.setCellValueFactory(cell ->
+				new ReadOnlyObjectWrapper<Double>(store.getX(cell.getValue())));
+		xCol.setCellFactory(col -> new PointCell());
 		xCol.setOnEditCommit(
-				new EventHandler<CellEditEvent<XYChart.Data<Number, Number>, Double>>() {
+				new EventHandler<CellEditEvent<Integer, Double>>() {
 
 					@Override
-					public void handle(CellEditEvent<XYChart.Data<Number, Number>, Double> e) {
-						((Data<Number, Number>) e.getTableView().getItems().get(
-								e.getTablePosition().getRow())).setXValue(
-										e.getNewValue());
+					public void handle(CellEditEvent<Integer, Double> e) {
+						int row = e.getRowValue();
+						changePoint(row, e.getNewValue(), store.getY(row));
 					}
 					
 				});
-		TableColumn<XYChart.Data<Number, Number>, Double> yCol =
-				new TableColumn<XYChart.Data<Number, Number>, Double>("Y");
-		yCol.setCellValueFactory(
-				new PropertyValueFactory<XYChart.Data<Number, Number>, Double>("YValue"));
+		TableColumn<Integer, Double> yCol = new TableColumn<Integer, Double>("Y");
+		yCol.setCellValueFactory(cell ->
+				new ReadOnlyObjectWrapper<Double>(store.getY(cell.getValue())));
+		yCol.setCellFactory(col -> new PointCell());
 		yCol.setOnEditCommit(
-				new EventHandler<CellEditEvent<XYChart.Data<Number, Number>, Double>>() {
+				new EventHandler<CellEditEvent<Integer, Double>>() {
 
 					@Override
-					public void handle(CellEditEvent<XYChart.Data<Number, Number>, Double> e) {
-						((Data<Number, Number>) e.getTableView().getItems().get(
-								e.getTablePosition().getRow())).setYValue(
-										e.getNewValue());
+					public void handle(CellEditEvent<Integer, Double> e) {
+						int row = e.getRowValue();
+						changePoint(row, store.getX(row), e.getNewValue());
 					}
 					
 				});
-		table.setItems(data);
+		table.setItems(new PointRows(store));
 		table.getColumns().addAll(xCol, yCol);
 		table.setMaxWidth(162);
+		table.setEditable(true);
+		//Rows of one height are placed without measuring each cell.
+		table.setFixedCellSize(ROW_HEIGHT);
+		table.addEventHandler(KeyEvent.KEY_PRESSED, e -> {
+			if (PASTE.match(e)) {
+				pastePoints();
+				e.consume();
+			}
+		});
 		
 		//-------------CONSTRUCT THE BORDERPANE--------------
 		tableBox.setTop(label);
-		tableBox.setBottom(buildAddPane());
+		tableBox.setBottom(new VBox(buildAddPane(), buildWindowPane()));
 		buildCalcBox();
 		tableBox.setCenter(calcBox);
 		tableBox.setLeft(table);		
@@ -202,15 +292,15 @@ public class TableChart extends Application {
 			@Override
 			public void handle(ActionEvent e) {
 				try {
-					data.add(new XYChart.Data<Number, Number>(Double.parseDouble(xField.getText()),
-							Double.parseDouble(yField.getText())));
-				} catch (InputMismatchException e1) {
+					double x = parseValue(xField.getText());
+					double y = parseValue(yField.getText());
+					addPoint(x, y);
+				} catch (NumberFormatException e1) {
 					JOptionPane.showMessageDialog(null, "Please input a number.");
 				}
 						
 				xField.clear();
 				yField.clear();
-				updateCalcBox();
 				xField.requestFocus();
 			}
 			
@@ -231,23 +321,16 @@ public class TableChart extends Application {
 			@Override
 			public void handle(ActionEvent e) {
 				try {
-					Double x = Double.parseDouble(xField.getText());
-					Double y = Double.parseDouble(yField.getText());
+					double x = parseValue(xField.getText());
+					double y = parseValue(yField.getText());
 
-				
-					for (int i = 0; i < data.size(); i++) {
-						if (x.equals(data.get(i).getXValue()) && y.equals(data.get(i).getYValue())) {
-							data.remove(i);
-							break;
-						}
-					}
-				} catch (InputMismatchException e2) {
+					removePoint(x, y);
+				} catch (NumberFormatException e2) {
 					JOptionPane.showMessageDialog(null, "Please input a number.");
 				}
 				
 				xField.clear();
 				yField.clear();
-				updateCalcBox();
 				xField.requestFocus();
 			}
 		});
@@ -260,14 +343,353 @@ public class TableChart extends Application {
 			}
 		});
 		
+		final Button importBtn = new Button("Import");
+		importBtn.setOnAction(new EventHandler<ActionEvent>() {
+			@Override
+			public void handle(ActionEvent e) {
+				FileChooser chooser = new FileChooser();
+				chooser.setTitle("Import Points");
+				chooser.getExtensionFilters().addAll(
+						new FileChooser.ExtensionFilter("CSV", "*.csv", "*.txt"),
+						new FileChooser.ExtensionFilter("Little-endian doubles", "*.bin"));
+				File file = chooser.showOpenDialog(box.getScene().getWindow());
+				if (file != null) {
+					importPoints(file, importBtn);
+				}
+			}
+		});
+		
+		final Button saveBtn = new Button("Save");
+		saveBtn.setOnAction(new EventHandler<ActionEvent>() {
+			@Override
+			public void handle(ActionEvent e) {
+				File file = snapshotChooser("Save Points").showSaveDialog(box.getScene().getWindow());
+				if (file != null) {
+					savePoints(file, saveBtn);
+				}
+			}
+		});
+		
+		final Button loadBtn = new Button("Load");
+		loadBtn.setOnAction(new EventHandler<ActionEvent>() {
+			@Override
+			public void handle(ActionEvent e) {
+				File file = snapshotChooser("Load Points").showOpenDialog(box.getScene().getWindow());
+				if (file != null) {
+					loadPoints(file, loadBtn);
+				}
+			}
+		});
+		
+		//Sketches keep the statistics a bounded size, at some accuracy; the
+		//table still holds every point.
+		exactBox = new CheckBox("Exact");
+		exactBox.setSelected(true);
+		exactBox.selectedProperty().addListener((obs, was, exact) ->
+				stats.setMode(exact ? StatisticsUpdater.EXACT : StatisticsUpdater.SKETCH, store));
+		
 		//Setup the box and add children.
 		box.setSpacing(5);
 		box.setPadding(new Insets(10, 0, 0, 10));
-		box.getChildren().addAll(xField, yField, addBtn, rmBtn);
+		box.getChildren().addAll(xField, yField, addBtn, rmBtn, importBtn, saveBtn, loadBtn,
+				exactBox);
 		
 		return box;
 	}
 	
+	/**
+	 * Creates a panel to keep only the latest points, by count or by age.
+	 * Leaving both fields empty keeps every point.
+	 * @return a panel with two text fields and a button.
+	 */
+	private HBox buildWindowPane() {
+		HBox box = new HBox();
+		
+		final TextField countField = new TextField();
+		countField.setPromptText("Last N points");
+		
+		final TextField ageField = new TextField();
+		ageField.setPromptText("Last T seconds");
+		
+		final Button windowBtn = new Button("Window");
+		windowBtn.setOnAction(new EventHandler<ActionEvent>() {
+			@Override
+			public void handle(ActionEvent e) {
+				try {
+					String count = countField.getText().trim();
+					String age = ageField.getText().trim();
+					setWindow(count.isEmpty() ? 0 : Integer.parseInt(count),
+							age.isEmpty() ? 0 : (long) (Double.parseDouble(age) * 1e9));
+				} catch (NumberFormatException e1) {
+					JOptionPane.showMessageDialog(null, "Please input a number.");
+				}
+			}
+		});
+		
+		box.setSpacing(5);
+		box.setPadding(new Insets(5, 0, 0, 10));
+		box.getChildren().addAll(countField, ageField, windowBtn);
+		
+		return box;
+	}
+	
+	/**
+	 * Starts, changes or stops the window. The points already in the table
+	 * join it as if they had just arrived. While the window is on the
+	 * statistics run in running mode, which keeps up with points coming and
+	 * going, and sketch mode is not offered.
+	 * @param maxPoints is the most points kept, or 0 for no limit.
+	 * @param maxAge is the oldest a point may get in nanoseconds, or 0.
+	 */
+	private void setWindow(int maxPoints, long maxAge) {
+		window.setLimits(Math.max(maxPoints, 0), Math.max(maxAge, 0));
+		window.clear();
+		if (window.isLimited()) {
+			long now = System.nanoTime();
+			for (int i = 0; i < store.size(); i++) {
+				window.add(store.getX(i), store.getY(i), now);
+			}
+			exactBox.setSelected(true);
+			exactBox.setDisable(true);
+			window.expire(now, this::evict);
+			stats.setMode(StatisticsUpdater.RUNNING, store);
+		} else {
+			exactBox.setDisable(false);
+			stats.setMode(exactBox.isSelected() ? StatisticsUpdater.EXACT
+					: StatisticsUpdater.SKETCH, store);
+		}
+	}
+	
+	/**
+	 * Adds a point to the table, chart, window and statistics.
+	 * @param x is the x component.
+	 * @param y is the y component.
+	 */
+	private void addPoint(double x, double y) {
+		Timer.Sample sample = ADD_TIMER.start();
+		try {
+			store.add(x, y);
+			stats.add(x, y);
+			if (window.isLimited()) {
+				long now = System.nanoTime();
+				window.add(x, y, now);
+				window.expire(now, this::evict);
+			}
+		} finally {
+			sample.stop();
+		}
+	}
+	
+	/**
+	 * Removes a point the user asked to remove, if there is one.
+	 * @param x is the x component.
+	 * @param y is the y component.
+	 */
+	private void removePoint(double x, double y) {
+		Timer.Sample sample = REMOVE_TIMER.start();
+		try {
+			int i = store.indexOf(x, y);
+			if (i < 0) return;
+			store.remove(i);
+			if (window.isLimited()) window.remove(x, y);
+			if (stats.canRemove()) {
+				stats.remove(x, y);
+			} else {
+				stats.reset(store);
+			}
+		} finally {
+			sample.stop();
+		}
+	}
+	
+	/**
+	 * Changes a point after the user edits a cell.
+	 * @param row is the point's row.
+	 * @param x is the new x component.
+	 * @param y is the new y component.
+	 */
+	private void changePoint(int row, double x, double y) {
+		Timer.Sample sample = CHANGE_TIMER.start();
+		try {
+			double oldX = store.getX(row);
+			double oldY = store.getY(row);
+			if (Double.compare(x, oldX) != 0) store.setX(row, x);
+			if (Double.compare(y, oldY) != 0) store.setY(row, y);
+			if (window.isLimited()) window.replace(oldX, oldY, x, y);
+			if (stats.canRemove()) {
+				stats.change(oldX, oldY, x, y);
+			} else {
+				stats.reset(store);
+			}
+		} finally {
+			sample.stop();
+		}
+	}
+	
+	/**
+	 * Drops a point that fell out of the window.
+	 * @param x is the x component.
+	 * @param y is the y component.
+	 */
+	private void evict(double x, double y) {
+		int i = store.indexOf(x, y);
+		if (i < 0) return;
+		store.remove(i);
+		stats.remove(x, y);
+	}
+	
+	/**
+	 * Reads a file of points on a background thread, then adds them all at
+	 * once.
+	 * @param file is a .bin file of little-endian doubles or a CSV file.
+	 * @param button is disabled while the file is read.
+	 */
+	private void importPoints(File file, Button button) {
+		final boolean binary = file.getName().toLowerCase().endsWith(".bin");
+		Task<PointStore> task = new Task<PointStore>() {
+			@Override
+			protected PointStore call() throws Exception {
+				return binary ? PointImporter.readBinary(file.toPath())
+						: PointImporter.readCsv(file.toPath());
+			}
+		};
+		task.setOnSucceeded(e -> {
+			addPoints(task.getValue());
+			button.setDisable(false);
+		});
+		task.setOnFailed(e -> {
+			button.setDisable(false);
+			JOptionPane.showMessageDialog(null, "Could not import " + file.getName()
+					+ ": " + task.getException().getMessage());
+		});
+		button.setDisable(true);
+		Thread t = new Thread(task, "import");
+		t.setDaemon(true);
+		t.start();
+	}
+	
+	/**
+	 * Creates a file chooser for snapshot files.
+	 * @param title is the dialog title.
+	 * @return the chooser.
+	 */
+	private static FileChooser snapshotChooser(String title) {
+		FileChooser chooser = new FileChooser();
+		chooser.setTitle(title);
+		chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Snapshot", "*.snap"));
+		return chooser;
+	}
+	
+	/**
+	 * Writes the points and their statistics to a snapshot file on a
+	 * background thread. The points are copied first, so editing can go on.
+	 * @param file is the file to write.
+	 * @param button is disabled while the file is written.
+	 */
+	private void savePoints(File file, Button button) {
+		final PointStore points = store.snapshot();
+		Task<Void> task = new Task<Void>() {
+			@Override
+			protected Void call() throws Exception {
+				PointSnapshot.save(file.toPath(), points);
+				return null;
+			}
+		};
+		task.setOnSucceeded(e -> button.setDisable(false));
+		task.setOnFailed(e -> {
+			button.setDisable(false);
+			JOptionPane.showMessageDialog(null, "Could not save " + file.getName()
+					+ ": " + task.getException().getMessage());
+		});
+		button.setDisable(true);
+		Thread t = new Thread(task, "save");
+		t.setDaemon(true);
+		t.start();
+	}
+	
+	/**
+	 * Reads a snapshot file on a background thread, then replaces every
+	 * point with its points. The saved statistics are shown at once.
+	 * @param file is the file to read.
+	 * @param button is disabled while the file is read.
+	 */
+	private void loadPoints(File file, Button button) {
+		Task<PointSnapshot> task = new Task<PointSnapshot>() {
+			@Override
+			protected PointSnapshot call() throws Exception {
+				return PointSnapshot.load(file.toPath());
+			}
+		};
+		task.setOnSucceeded(e -> {
+			PointSnapshot snap = task.getValue();
+			PointStore read = snap.getPoints();
+			window.clear();
+			if (window.isLimited()) {
+				//The window may drop some points, so the saved values may not fit.
+				store.clear();
+				addPoints(read);
+				if (read.size() == 0) stats.reset(store);
+			} else {
+				//The table takes the loaded arrays as they are, and the saved
+				//values stand until the first edit.
+				store.adopt(read);
+				stats.reset(store, snap.calcValues());
+			}
+			button.setDisable(false);
+		});
+		task.setOnFailed(e -> {
+			button.setDisable(false);
+			JOptionPane.showMessageDialog(null, "Could not load " + file.getName()
+					+ ": " + task.getException().getMessage());
+		});
+		button.setDisable(true);
+		Thread t = new Thread(task, "load");
+		t.setDaemon(true);
+		t.start();
+	}
+	
+	/**
+	 * Adds the rows on the clipboard, one point per line as in a CSV file,
+	 * in one change.
+	 */
+	private void pastePoints() {
+		Clipboard clipboard = Clipboard.getSystemClipboard();
+		if (!clipboard.hasString()) return;
+		try {
+			addPoints(PointImporter.readCsv(clipboard.getString()));
+		} catch (IOException e) {
+			JOptionPane.showMessageDialog(null, "Could not paste: " + e.getMessage());
+		}
+	}
+	
+	/**
+	 * Adds many points at once, so the table and chart see one change and
+	 * the statistics are rebuilt in one pass instead of one edit per point.
+	 * @param read holds the points to add.
+	 */
+	private void addPoints(PointStore read) {
+		Timer.Sample sample = ADD_ALL_TIMER.start();
+		try {
+			if (read.size() == 0) return;
+			//Points a window would drop at once are not added at all.
+			int from = 0;
+			if (window.getMaxPoints() > 0) {
+				from = Math.max(read.size() - window.getMaxPoints(), 0);
+			}
+			store.addAll(read.xColumn(), read.yColumn(), from, read.size() - from);
+			if (window.isLimited()) {
+				long now = System.nanoTime();
+				for (int i = from; i < read.size(); i++) {
+					window.add(read.getX(i), read.getY(i), now);
+				}
+				window.expire(now, this::evict);
+			}
+			stats.reset(store);
+		} finally {
+			sample.stop();
+		}
+	}
+	
 	/**
 	 * Creates the grid pane to display statistics from the x-y table.
 	 */
@@ -301,10 +723,25 @@ public class TableChart extends Application {
 		Label Sx = new Label("Sx: ");
 		calcBox.add(Sx, 0, 5);
 		
+		Label cov = new Label("Cov: ");
+		calcBox.add(cov, 0, 6);
+		
+		Label r = new Label("r: ");
+		calcBox.add(r, 0, 7);
+		
+		Label r2 = new Label("R\u00b2: ");
+		calcBox.add(r2, 0, 8);
+		
+		Label slope = new Label("Slope: ");
+		calcBox.add(slope, 0, 9);
+		
+		Label intercept = new Label("Icept: ");
+		calcBox.add(intercept, 0, 10);
+		
 		//-------------DISPLAY FIELDS-----------------
 		//TODO How much statistics do we need?
 		display = FXCollections.observableArrayList();
-		for (int i = 1; i < 10; i++) {
+		for (int i = 1; i < 6; i++) {
 			Text text1 = new Text();
 			calcBox.add(text1, 1, i);
 			display.add(text1);
@@ -313,26 +750,67 @@ public class TableChart extends Application {
 			calcBox.add(text2, 2, i);
 			display.add(text2);
 		}
-		
+		//The paired statistics have one value each.
+		for (int i = 6; i < 11; i++) {
+			Text text = new Text();
+			calcBox.add(text, 1, i);
+			display.add(text);
+		}
 	}
 	
 	/**
-	 * Updates the text in the calcBox.
+	 * Reads a typed value. NaN and infinities are turned away, since the
+	 * statistics only take finite values.
+	 * @param text is the text typed.
+	 * @return the value.
+	 * @throws NumberFormatException if the text is not a finite number.
 	 */
-	private void updateCalcBox() {
-		
-		Statistics st = new Statistics(data);
-		
-		display.get(0).setText("" + DF.format(st.getXMean()));
-		display.get(1).setText("" + DF.format(st.getYMean()));
-		display.get(2).setText("" + DF.format(st.getXMedian()));
-		display.get(3).setText("" + DF.format(st.getYMedian()));
-		display.get(4).setText("" + DF.format(st.getXMode()));
-		display.get(5).setText("" + DF.format(st.getYMode()));
-		display.get(6).setText("" + DF.format(st.getXRange()));
-		display.get(7).setText("" + DF.format(st.getYRange()));
-		display.get(8).setText("" + DF.format(st.getXs()));
-		display.get(9).setText("" + DF.format(st.getYs()));
+	private static double parseValue(String text) {
+		double v = Double.parseDouble(text.trim());
+		if (!Double.isFinite(v)) throw new NumberFormatException("Not a finite number: " + text);
+		return v;
+	}
+	
+	/**
+	 * Tells the statistics worker whether the values are on screen: every
+	 * value while the stage is showing and not minimized, none otherwise.
+	 * @param stage is the stage holding the calcBox.
+	 */
+	private void updateWanted(Stage stage) {
+		boolean onScreen = stage.isShowing() && !stage.isIconified();
+		stats.setWanted(onScreen ? MetricBindings.ALL : 0);
+	}
+	
+	/**
+	 * Updates the text in the calcBox and the fitted line on the chart.
+	 * Called with new values once the statistics have caught up with the edits.
+	 * @param text holds the values in display order, null where unchanged.
+	 * @param slope is the slope of the least-squares line.
+	 * @param intercept is the intercept of the least-squares line.
+	 */
+	private void updateCalcBox(String[] text, double slope, double intercept) {
+		Timer.Sample sample = CALC_TIMER.start();
+		try {
+			for (int i = 0; i < text.length; i++) {
+				if (text[i] != null) display.get(i).setText(text[i]);
+			}
+			chart.setFitLine(slope, intercept);
+		} finally {
+			sample.stop();
+		}
+	}
+	
+	/**
+	 * Formats the statistics shown in the calcBox, in display order.
+	 * Kept apart from the Text nodes so the work can be measured headless.
+	 * In sketch mode a median is followed by half the width of the range
+	 * it lies in, and a mode is marked as approximate.
+	 * @param st is the statistics to show.
+	 * @param format formats each value.
+	 * @return the x and y values of each row, in turn, then the paired values.
+	 */
+	public static String[] calcText(Statistics st, NumberFormat format) {
+		return new MetricBindings(st, format).refresh(MetricBindings.ALL);
 	}
 
 	/**
@@ -0,0 +1,103 @@
+package smallstatapp.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import smallstatapp.MomentKernels;
+import smallstatapp.Moments;
+import smallstatapp.PairedMoments;
+import smallstatapp.PointStore;
+
+/**
+ * Compares the loops that summarize both columns: the separate two-pass
+ * loops Statistics used before, the fused scalar kernel and the fused
+ * Vector API kernel. The fork adds the vector module; on a JVM without
+ * it the vector benchmark fails.
+ * @author Melinda Robertson
+ * @version 17 October 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "--add-modules=jdk.incubator.vector"})
+public class KernelBenchmark {
+
+	/**
+	 * The number of points.
+	 */
+	@Param({"1000", "100000", "10000000"})
+	public int n;
+
+	/**
+	 * The x components.
+	 */
+	private double[] xs;
+
+	/**
+	 * The y components.
+	 */
+	private double[] ys;
+
+	/**
+	 * Receives the bounds from the kernels.
+	 */
+	private final double[] bounds = new double[4];
+
+	/**
+	 * Generates the points.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() {
+		PointStore store = StatisticsBenchmark.Distribution.SKEWED.fill(n);
+		xs = store.xColumn();
+		ys = store.yColumn();
+	}
+
+	/**
+	 * Summarizes with one two-pass loop per column and one for the pairs.
+	 * @return the moments, so nothing is optimized away.
+	 */
+	@Benchmark
+	public Object twoPassLoops() {
+		Moments x = Moments.of(xs, 0, n);
+		Moments y = Moments.of(ys, 0, n);
+		PairedMoments xy = PairedMoments.of(xs, ys, 0, n);
+		return new Object[] {x, y, xy};
+	}
+
+	/**
+	 * Summarizes with the fused scalar kernel.
+	 * @return the moments.
+	 */
+	@Benchmark
+	public PairedMoments scalarKernel() {
+		return MomentKernels.scalar().summarize(xs, ys, 0, n, bounds);
+	}
+
+	/**
+	 * Summarizes with the fused vector kernel.
+	 * @return the moments.
+	 */
+	@Benchmark
+	public PairedMoments vectorKernel() {
+		MomentKernels.Kernel k = MomentKernels.vector();
+		if (k == null) {
+			throw new IllegalStateException("Run with --add-modules jdk.incubator.vector");
+		}
+		return k.summarize(xs, ys, 0, n, bounds);
+	}
+}
@@ -0,0 +1,198 @@
+package smallstatapp.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import smallstatapp.PointStore;
+import smallstatapp.Statistics;
+
+/**
+ * Measures how building Statistics and reading its values scale with the
+ * number of points and how the points are spread. Run {@link #main(String[])}
+ * to get throughput with the allocation rate from the GC profiler.
+ * @author Melinda Robertson
+ * @version 17 October 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Djava.awt.headless=true"})
+public class StatisticsBenchmark {
+
+	/**
+	 * How the generated values are spread.
+	 */
+	public enum Distribution {
+		/**
+		 * Evenly spread between 0 and 1000, almost no repeats.
+		 */
+		UNIFORM,
+		/**
+		 * Log-normal, so most values are small with a long tail.
+		 */
+		SKEWED,
+		/**
+		 * Only sixteen distinct values.
+		 */
+		DUPLICATED;
+
+		/**
+		 * Draws one value.
+		 * @param r is the source of randomness.
+		 * @return the value.
+		 */
+		public double next(Random r) {
+			switch (this) {
+			case SKEWED:
+				return Math.exp(r.nextGaussian() * 2);
+			case DUPLICATED:
+				return r.nextInt(16);
+			default:
+				return r.nextDouble() * 1000;
+			}
+		}
+
+		/**
+		 * Fills a store with points. The same seed always gives the same points.
+		 * @param n is the number of points.
+		 * @return the store.
+		 */
+		public PointStore fill(int n) {
+			Random r = new Random(42);
+			double[] xs = new double[n];
+			double[] ys = new double[n];
+			for (int i = 0; i < n; i++) {
+				xs[i] = next(r);
+				ys[i] = next(r);
+			}
+			PointStore store = new PointStore(n);
+			store.addAll(xs, ys, 0, n);
+			return store;
+		}
+	}
+
+	/**
+	 * The number of points.
+	 */
+	@Param({"1000", "10000", "100000", "1000000", "10000000"})
+	public int n;
+
+	/**
+	 * How the points are spread.
+	 */
+	@Param({"UNIFORM", "SKEWED", "DUPLICATED"})
+	public Distribution distribution;
+
+	/**
+	 * The points.
+	 */
+	private PointStore store;
+
+	/**
+	 * Statistics built once, for the getters that are answered from state.
+	 */
+	private Statistics built;
+
+	/**
+	 * Statistics rebuilt before every call, for the getters that cache work.
+	 * Kept in its own state so the rebuild only runs for those benchmarks.
+	 */
+	@State(Scope.Thread)
+	public static class Fresh {
+
+		/**
+		 * Statistics that have not answered anything yet.
+		 */
+		private Statistics stats;
+
+		/**
+		 * Rebuilds the statistics so a median is not served from the last call.
+		 * @param bench holds the points.
+		 */
+		@Setup(Level.Invocation)
+		public void rebuild(StatisticsBenchmark bench) {
+			stats = new Statistics(bench.store);
+		}
+	}
+
+	/**
+	 * Generates the points.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() {
+		store = distribution.fill(n);
+		built = new Statistics(store);
+	}
+
+	/**
+	 * Builds statistics from the store.
+	 * @return the statistics.
+	 */
+	@Benchmark
+	public Statistics construct() {
+		return new Statistics(store);
+	}
+
+	/**
+	 * Finds the x median of statistics that have not selected anything yet.
+	 * @param fresh holds the statistics.
+	 * @return the median.
+	 */
+	@Benchmark
+	public double xMedian(Fresh fresh) {
+		return fresh.stats.getXMedian();
+	}
+
+	/**
+	 * Finds the x mode.
+	 * @return the mode.
+	 */
+	@Benchmark
+	public double xMode() {
+		return built.getXMode();
+	}
+
+	/**
+	 * Finds the x standard deviation.
+	 * @return the deviation.
+	 */
+	@Benchmark
+	public double xs() {
+		return built.getXs();
+	}
+
+	/**
+	 * Runs every benchmark in this file with the GC profiler.
+	 * @param args are ignored.
+	 * @throws RunnerException if JMH fails.
+	 */
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(StatisticsBenchmark.class.getSimpleName())
+				.include(UpdatePathBenchmark.class.getSimpleName())
+				.include(KernelBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.build();
+		new Runner(opt).run();
+	}
+}
@@ -0,0 +1,153 @@
+package smallstatapp.benchmark;
+
+import java.text.DecimalFormat;
+import java.text.NumberFormat;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import smallstatapp.MetricBindings;
+import smallstatapp.PointStore;
+import smallstatapp.Statistics;
+import smallstatapp.TableChart;
+
+/**
+ * Measures the work TableChart does when the user adds a point or edits an
+ * x cell: the statistics are updated and the calcBox text is formatted.
+ * Editing is measured both the old way, taking the point out and putting it
+ * back and formatting everything, and with only x and the values that depend
+ * on it redone. The Text nodes themselves are left out so this runs without
+ * starting JavaFX.
+ * @author Melinda Robertson
+ * @version 17 October 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Djava.awt.headless=true"})
+public class UpdatePathBenchmark {
+
+	/**
+	 * The number of points already in the table.
+	 */
+	@Param({"1000", "10000", "100000", "1000000", "10000000"})
+	public int n;
+
+	/**
+	 * How the points are spread.
+	 */
+	@Param({"UNIFORM", "SKEWED", "DUPLICATED"})
+	public StatisticsBenchmark.Distribution distribution;
+
+	/**
+	 * The running statistics of the table.
+	 */
+	private Statistics stats;
+
+	/**
+	 * Formats the values as TableChart does.
+	 */
+	private NumberFormat format;
+
+	/**
+	 * Remembers the formatted values between edits.
+	 */
+	private MetricBindings metrics;
+
+	/**
+	 * The x components of the points in the statistics.
+	 */
+	private double[] xs;
+
+	/**
+	 * The y components of the points in the statistics.
+	 */
+	private double[] ys;
+
+	/**
+	 * The source of new points.
+	 */
+	private Random random;
+
+	/**
+	 * Fills the running statistics.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() {
+		PointStore store = distribution.fill(n);
+		stats = new Statistics(store);
+		//The first edit sorts the loaded columns; keep that out of the numbers.
+		stats.add(0, 0);
+		stats.remove(0, 0);
+		format = new DecimalFormat("#0.00");
+		random = new Random(7);
+		xs = store.xColumn();
+		ys = store.yColumn();
+		metrics = new MetricBindings(stats, format);
+		metrics.refresh(MetricBindings.ALL);
+	}
+
+	/**
+	 * Adds a point, formats the calcBox text, then removes the point again
+	 * so the table size stays at n.
+	 * @return the formatted text.
+	 */
+	@Benchmark
+	public String[] addThenUpdateCalcBox() {
+		double x = distribution.next(random);
+		double y = distribution.next(random);
+		stats.add(x, y);
+		String[] text = TableChart.calcText(stats, format);
+		stats.remove(x, y);
+		return text;
+	}
+
+	/**
+	 * Edits the x cell of a point by removing and adding the whole point and
+	 * formatting every value, then puts it back the same way.
+	 * @return the formatted text.
+	 */
+	@Benchmark
+	public String[] editXRecomputeAll() {
+		int i = random.nextInt(n);
+		double x = distribution.next(random);
+		stats.remove(xs[i], ys[i]);
+		stats.add(x, ys[i]);
+		TableChart.calcText(stats, format);
+		stats.remove(x, ys[i]);
+		stats.add(xs[i], ys[i]);
+		return TableChart.calcText(stats, format);
+	}
+
+	/**
+	 * Edits the x cell of a point by changing only x and formatting only the
+	 * values that depend on it, then puts it back the same way.
+	 * @return the newly formatted text.
+	 */
+	@Benchmark
+	public String[] editXInvalidateAxis() {
+		int i = random.nextInt(n);
+		double x = distribution.next(random);
+		int slots = MetricBindings.affectedBy(Statistics.X);
+		stats.change(xs[i], ys[i], x, ys[i]);
+		metrics.invalidate(slots);
+		metrics.refresh(MetricBindings.ALL);
+		stats.change(x, ys[i], xs[i], ys[i]);
+		metrics.invalidate(slots);
+		return metrics.refresh(MetricBindings.ALL);
+	}
+}
@@ -0,0 +1,92 @@
+package smallstatapp;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The moment kernel written with the incubating Vector API. Each lane keeps
+ * its own sums and bounds across the loop, and the lanes are combined once
+ * at the end, so the loop body is a handful of vector adds, fused
+ * multiply-adds, mins and maxes. Compiling or loading this class needs
+ * --add-modules jdk.incubator.vector, so it is kept out of the smallstatapp
+ * directory and built as a separate step; {@link MomentKernels} only loads
+ * it when it was built and that module is present.
+ * @author Melinda Robertson
+ * @version 17 October 2026
+ */
+class VectorMomentKernel implements MomentKernels.Kernel {
+
+	/**
+	 * The widest vector shape the hardware supports.
+	 */
+	private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+	/**
+	 * Summarizes a range of points a vector at a time, then the leftover
+	 * points one at a time.
+	 */
+	@Override
+	public PairedMoments summarize(double[] xs, double[] ys, int from, int to,
+			double[] bounds) {
+		int n = to - from;
+		if (n <= 0) return new PairedMoments();
+		double kx = xs[from];
+		double ky = ys[from];
+		DoubleVector shiftX = DoubleVector.broadcast(SPECIES, kx);
+		DoubleVector shiftY = DoubleVector.broadcast(SPECIES, ky);
+		DoubleVector vsx = DoubleVector.zero(SPECIES);
+		DoubleVector vsy = vsx, vsxx = vsx, vsyy = vsx, vsxy = vsx;
+		DoubleVector vminX = shiftX, vmaxX = shiftX, vminY = shiftY, vmaxY = shiftY;
+
+		int i = from;
+		int end = from + SPECIES.loopBound(n);
+		for (; i < end; i += SPECIES.length()) {
+			DoubleVector x = DoubleVector.fromArray(SPECIES, xs, i);
+			DoubleVector y = DoubleVector.fromArray(SPECIES, ys, i);
+			DoubleVector dx = x.sub(shiftX);
+			DoubleVector dy = y.sub(shiftY);
+			vsx = vsx.add(dx);
+			vsy = vsy.add(dy);
+			vsxx = dx.fma(dx, vsxx);
+			vsyy = dy.fma(dy, vsyy);
+			vsxy = dx.fma(dy, vsxy);
+			vminX = vminX.min(x);
+			vmaxX = vmaxX.max(x);
+			vminY = vminY.min(y);
+			vmaxY = vmaxY.max(y);
+		}
+		double sx = vsx.reduceLanes(VectorOperators.ADD);
+		double sy = vsy.reduceLanes(VectorOperators.ADD);
+		double sxx = vsxx.reduceLanes(VectorOperators.ADD);
+		double syy = vsyy.reduceLanes(VectorOperators.ADD);
+		double sxy = vsxy.reduceLanes(VectorOperators.ADD);
+		double minX = vminX.reduceLanes(VectorOperators.MIN);
+		double maxX = vmaxX.reduceLanes(VectorOperators.MAX);
+		double minY = vminY.reduceLanes(VectorOperators.MIN);
+		double maxY = vmaxY.reduceLanes(VectorOperators.MAX);
+
+		for (; i < to; i++) {
+			double x = xs[i];
+			double y = ys[i];
+			double dx = x - kx;
+			double dy = y - ky;
+			sx += dx;
+			sy += dy;
+			sxx += dx * dx;
+			syy += dy * dy;
+			sxy += dx * dy;
+			if (x < minX) minX = x;
+			if (x > maxX) maxX = x;
+			if (y < minY) minY = y;
+			if (y > maxY) maxY = y;
+		}
+		if (bounds != null) {
+			bounds[0] = minX;
+			bounds[1] = maxX;
+			bounds[2] = minY;
+			bounds[3] = maxY;
+		}
+		return MomentKernels.fromShiftedSums(n, kx, ky, sx, sy, sxx, syy, sxy);
+	}
+}